@@ -17,28 +17,31 @@ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
 */
 package com.kpouer.themis;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.List;
 
 @RequiredArgsConstructor
 public abstract class AbstractCreator<T> implements Creator<T> {
     protected final ThemisImpl themis;
 
+    /**
+     * Returns the definitions of the components needed to create the component.
+     *
+     * @return the dependencies
+     * @throws ComponentIocException if a dependency cannot be resolved
+     */
+    abstract List<ComponentDefinition<?>> getDependencies();
+
     protected void invokePostConstruct(T component) {
-        var methods = component.getClass().getMethods();
-        for (Method method : methods) {
-            if (method.getAnnotation(PostConstruct.class) != null) {
-                try {
-                    method.setAccessible(true);
-                    method.invoke(component);
-                } catch (IllegalAccessException e) {
-                    throw new ComponentIocException("Method " + method.getName() + " of " + component.getClass().getName() + " is should be public", e);
-                } catch (InvocationTargetException e) {
-                    throw new ComponentIocException("Unable to call " + method.getName() + " of " + component.getClass().getName(), e);
-                }
+        var metadata = LifecycleMetadata.of(component.getClass());
+        if (metadata.hasPostConstruct()) {
+            var event = new PostConstructEvent();
+            event.begin();
+            metadata.invokePostConstruct(component);
+            if (event.shouldCommit()) {
+                event.componentClass = component.getClass();
+                event.commit();
             }
         }
     }
@@ -0,0 +1,124 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Component creator.
+ * It will create the component using a factory method returning a {@link CompletionStage} of the component.
+ * The declaring component and the dependencies are resolved asynchronously, then the method is called and the
+ * component is available once the stage completes, no thread is blocked while waiting for it.
+ *
+ * @param <T>
+ */
+class AsyncMethodCreator<T> extends AbstractCreator<T> {
+    private final ComponentDefinition<?> componentDefinition;
+    private final Method method;
+    private final MethodCreator<CompletionStage<T>> methodCreator;
+
+    AsyncMethodCreator(ThemisImpl themis, ComponentDefinition<?> componentDefinition, Method method) {
+        super(themis);
+        this.componentDefinition = componentDefinition;
+        this.method = method;
+        methodCreator = new MethodCreator<>(themis, componentDefinition, method);
+    }
+
+    /**
+     * Create the component and wait for it.
+     * The declaring component and the dependencies are resolved by the current thread, like for the other creators,
+     * only the stage returned by the method is waited for. The {@link CreationEvent} includes the wait.
+     *
+     * @return the component
+     * @throws ComponentIocException if the component can't be created
+     */
+    @Override
+    public T create() {
+        var event = new CreationEvent();
+        event.begin();
+        var injectionPlan = methodCreator.getPlan();
+        Object target = componentDefinition.getInstance();
+        try {
+            var component = invoke(injectionPlan, target, injectionPlan.getArgs(event)).toCompletableFuture().join();
+            invokePostConstruct(component);
+            if (event.shouldCommit()) {
+                event.componentClass = component.getClass();
+                event.factoryMethod = method.getDeclaringClass().getName() + '.' + method.getName();
+                event.commit();
+            }
+            return component;
+        } catch (CompletionException e) {
+            var cause = ComponentDefinition.unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new ComponentIocException((Exception) cause);
+        }
+    }
+
+    /**
+     * Create the component.
+     *
+     * @param executor the executor creating the dependencies
+     * @return the future component
+     */
+    CompletableFuture<T> createAsync(Executor executor) {
+        try {
+            var injectionPlan = methodCreator.getPlan();
+            CompletableFuture<?> instance = componentDefinition.getInstanceAsync(executor);
+            return instance.thenCombine(injectionPlan.getArgsAsync(executor), (target, args) -> invoke(injectionPlan, target, args))
+                           .thenCompose(stage -> stage)
+                           .thenApply(component -> {
+                               invokePostConstruct(component);
+                               return component;
+                           });
+        } catch (RuntimeException | Error e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletionStage<T> invoke(InjectionPlan injectionPlan, Object target, Object[] args) {
+        Object stage;
+        try {
+            // the call site must match the type of the handle exactly
+            stage = injectionPlan.getHandle().invokeExact(target, args);
+        } catch (ComponentIocException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ComponentIocException(e);
+        }
+        if (stage == null) {
+            throw new ComponentIocException("The factory method " + method.getName() + " of " +
+                                            method.getDeclaringClass().getName() + " returned null");
+        }
+        return (CompletionStage<T>) stage;
+    }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        return methodCreator.getDependencies();
+    }
+}
@@ -0,0 +1,349 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.ScanCache.ScannedClass;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Scan the classpath for component classes.
+ * The packages are located in their roots, directories or jars, that are walked in parallel with java.nio.file.
+ * Jars are read through zip file systems, a jar nested in another jar is opened from its parent without being
+ * extracted. Only the class files accepted by the class filter and by {@link ComponentClassFilter} are returned.
+ * With a {@link ScanCache}, the roots whose fingerprint did not change are not scanned again. The roots having a
+ * compile time {@link ComponentIndex} are not scanned.
+ *
+ * @author Matthieu Casanova
+ */
+final class ClassScanner {
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String JAR_SEPARATOR = "!/";
+
+    private final ClassLoader classLoader;
+    private final Predicate<String> classFilter;
+    /**
+     * The compile time index, null if there is none.
+     */
+    private final ComponentIndex compileTimeIndex;
+
+    /**
+     * Create a scanner.
+     *
+     * @param classLoader the class loader providing the packages
+     * @param classFilter the filter of the class names
+     */
+    ClassScanner(ClassLoader classLoader, Predicate<String> classFilter) {
+        this(classLoader, classFilter, null);
+    }
+
+    /**
+     * Create a scanner skipping the indexed roots.
+     *
+     * @param classLoader      the class loader providing the packages
+     * @param classFilter      the filter of the class names
+     * @param compileTimeIndex the compile time index or null, the roots it was loaded from are not scanned
+     */
+    ClassScanner(ClassLoader classLoader, Predicate<String> classFilter, ComponentIndex compileTimeIndex) {
+        this.classLoader = classLoader;
+        this.classFilter = classFilter;
+        this.compileTimeIndex = compileTimeIndex;
+    }
+
+    /**
+     * Scan the packages and their subpackages.
+     *
+     * @param packageNames the package names
+     * @param cache        the scan cache, or null
+     * @return the index of the components, sorted by class name
+     * @throws ComponentIocException if a package cannot be scanned
+     */
+    ComponentIndex scan(Collection<String> packageNames, ScanCache cache) throws ComponentIocException {
+        List<ScannedClass> scannedClasses;
+        try {
+            scannedClasses = getRoots(packageNames)
+                .parallelStream()
+                .map(root -> scan(root, cache))
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparing(ScannedClass::className))
+                .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw new ComponentIocException("Unexpected error scanning packages " + packageNames, e.getCause());
+        }
+        var index = new ComponentIndex();
+        for (var scannedClass : scannedClasses) {
+            if (classFilter.test(scannedClass.className())) {
+                index.addComponent(scannedClass.className(), (scannedClass.flags() & ComponentClassFilter.FACTORIES) != 0);
+            }
+        }
+        return index;
+    }
+
+    private List<ScannedClass> scan(Root root, ScanCache cache) {
+        if (cache == null) {
+            return scan(root, classFilter);
+        }
+        // the cache doesn't depend on the class filter, it is applied to the cached classes
+        try {
+            var fingerprint = root.getFingerprint();
+            var scannedClasses = cache.get(root.getKey(), fingerprint);
+            if (scannedClasses == null) {
+                scannedClasses = scan(root, className -> true);
+                cache.put(root.getKey(), fingerprint, scannedClasses);
+            }
+            return scannedClasses;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to scan " + root.location, e);
+        }
+    }
+
+    /**
+     * Returns the roots containing the packages, a root being scanned once for all the packages it contains.
+     * The roots having a compile time index are skipped.
+     */
+    Collection<Root> getRoots(Collection<String> packageNames) throws ComponentIocException {
+        var roots = new LinkedHashMap<String, Root>();
+        for (var packageName : packageNames) {
+            var packagePath = packageName.replace('.', '/');
+            try {
+                var resources = classLoader.getResources(packagePath);
+                if (!resources.hasMoreElements()) {
+                    if (compileTimeIndex != null && compileTimeIndex.containsPackage(packageName)) {
+                        // a jar without directory entries, its classes are indexed
+                        continue;
+                    }
+                    throw new ComponentIocException("Unexpected problem: No resource for " + packagePath);
+                }
+                while (resources.hasMoreElements()) {
+                    var resource = resources.nextElement();
+                    var location = getRootLocation(resource, packagePath);
+                    if (location == null) {
+                        throw new ComponentIocException("Unsupported resource " + resource);
+                    }
+                    if (compileTimeIndex == null || !compileTimeIndex.isIndexed(location)) {
+                        var jar = resource.getProtocol().equals("jar");
+                        roots.computeIfAbsent(location, key -> new Root(key, jar)).packagePaths.add(packagePath);
+                    }
+                }
+            } catch (IOException | URISyntaxException e) {
+                throw new ComponentIocException("Unexpected error loading resources " + packagePath, e);
+            }
+        }
+        return roots.values();
+    }
+
+    /**
+     * Returns the location of the root containing a resource, in the format of {@link Root#getLocation()}.
+     *
+     * @param resource the resource
+     * @param path     the path of the resource in its root
+     * @return the location, or null if the resource is neither in a jar nor in a directory
+     * @throws URISyntaxException if the URL of a directory is invalid
+     */
+    static String getRootLocation(URL resource, String path) throws URISyntaxException {
+        var spec = resource.toString();
+        if (spec.startsWith("jar:")) {
+            // jar:file:/app.jar!/lib/nested.jar!/package/path
+            return spec.substring("jar:".length(), spec.lastIndexOf(JAR_SEPARATOR));
+        }
+        if (spec.startsWith("file:")) {
+            var directory = Path.of(resource.toURI());
+            for (var i = path.split("/").length; i > 0; i--) {
+                directory = directory.getParent();
+            }
+            return directory.toUri().toString();
+        }
+        return null;
+    }
+
+    /**
+     * Scan a root.
+     *
+     * @param root        the root
+     * @param classFilter the filter of the class names
+     * @return the component classes
+     */
+    private static List<ScannedClass> scan(Root root, Predicate<String> classFilter) {
+        var fileSystems = new ArrayDeque<FileSystem>();
+        try {
+            Path base;
+            if (root.jar) {
+                var locations = root.location.split(JAR_SEPARATOR);
+                var fileSystem = FileSystems.newFileSystem(Path.of(URI.create(locations[0])));
+                fileSystems.push(fileSystem);
+                for (var i = 1; i < locations.length; i++) {
+                    fileSystem = FileSystems.newFileSystem(fileSystem.getPath(decode(locations[i])));
+                    fileSystems.push(fileSystem);
+                }
+                base = fileSystem.getPath("/");
+            } else {
+                base = Path.of(URI.create(root.location));
+            }
+            var scannedClasses = new ArrayList<ScannedClass>();
+            for (var packagePath : root.getScannedPackagePaths()) {
+                scan(base, base.resolve(packagePath), classFilter, scannedClasses);
+            }
+            return scannedClasses;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to scan " + root.location, e);
+        } finally {
+            closeAll(fileSystems);
+        }
+    }
+
+    /**
+     * Decode the path of a nested jar, it is encoded like the URI of the outer jar.
+     */
+    private static String decode(String path) {
+        // a + is not a space in a URI path
+        return URLDecoder.decode(path.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private static void scan(Path base,
+                             Path directory,
+                             Predicate<String> classFilter,
+                             List<ScannedClass> scannedClasses) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (var files = Files.walk(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var relativePath = base.relativize(file).toString();
+                if (relativePath.endsWith(CLASS_EXTENSION)) {
+                    var className = relativePath.substring(0, relativePath.length() - CLASS_EXTENSION.length())
+                                                .replace(file.getFileSystem().getSeparator(), ".");
+                    if (classFilter.test(className)) {
+                        var flags = ComponentClassFilter.read(Files.readAllBytes(file));
+                        if ((flags & ComponentClassFilter.COMPONENT) != 0) {
+                            scannedClasses.add(new ScannedClass(className, flags));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void closeAll(Deque<FileSystem> fileSystems) {
+        // nested file systems are closed before their parents
+        for (var fileSystem : fileSystems) {
+            try {
+                fileSystem.close();
+            } catch (IOException e) {
+                // nothing to do, the classes were read
+            }
+        }
+    }
+
+    /**
+     * A root of the classpath, a directory or a jar (possibly nested in other jars).
+     */
+    static final class Root {
+        /**
+         * The URI of the directory, or the URI of the jar followed by the path of the nested jars separated by !/
+         */
+        private final String location;
+        private final boolean jar;
+        private final Set<String> packagePaths = new LinkedHashSet<>();
+
+        private Root(String location, boolean jar) {
+            this.location = location;
+            this.jar = jar;
+        }
+
+        String getLocation() {
+            return location;
+        }
+
+        boolean isJar() {
+            return jar;
+        }
+
+        Set<String> getPackagePaths() {
+            return packagePaths;
+        }
+
+        /**
+         * Returns the package paths to walk, a subpackage of another package is not walked twice.
+         */
+        private List<String> getScannedPackagePaths() {
+            var scannedPackagePaths = new ArrayList<String>();
+            String previous = null;
+            for (var packagePath : new TreeSet<>(packagePaths)) {
+                if (previous == null || !packagePath.startsWith(previous + '/')) {
+                    scannedPackagePaths.add(packagePath);
+                    previous = packagePath;
+                }
+            }
+            return scannedPackagePaths;
+        }
+
+        /**
+         * Returns the key of the root in the {@link ScanCache}.
+         */
+        String getKey() {
+            return location + '|' + String.join(",", getScannedPackagePaths());
+        }
+
+        /**
+         * Returns the fingerprint of the root.
+         * For a jar it is the size and the modification time of the outermost jar file. For a directory it is
+         * the number, the total size and the last modification time of the class files of the packages.
+         */
+        String getFingerprint() throws IOException {
+            if (jar) {
+                var jarFile = Path.of(URI.create(location.split(JAR_SEPARATOR)[0]));
+                return Files.size(jarFile) + ":" + Files.getLastModifiedTime(jarFile).toMillis();
+            }
+            var base = Path.of(URI.create(location));
+            long count = 0;
+            long size = 0;
+            long lastModified = 0;
+            for (var packagePath : getScannedPackagePaths()) {
+                var directory = base.resolve(packagePath);
+                if (!Files.isDirectory(directory)) {
+                    continue;
+                }
+                try (var files = Files.walk(directory)) {
+                    for (var file : (Iterable<Path>) files::iterator) {
+                        if (file.toString().endsWith(CLASS_EXTENSION)) {
+                            var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                            count++;
+                            size += attributes.size();
+                            lastModified = Math.max(lastModified, attributes.lastModifiedTime().toMillis());
+                        }
+                    }
+                }
+            }
+            return count + ":" + size + ":" + lastModified;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.annotation.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the bytes of a class file to know if it is a component without loading it.
+ * It tells if the class and its methods are annotated with {@link Component}, as recorded in their
+ * RuntimeVisibleAnnotations attribute.
+ *
+ * @author Matthieu Casanova
+ */
+final class ComponentClassFilter {
+    /**
+     * The class is annotated with {@link Component}.
+     */
+    static final int COMPONENT = 1;
+    /**
+     * At least one method is annotated with {@link Component}.
+     */
+    static final int FACTORIES = 2;
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final byte[] COMPONENT_DESCRIPTOR = ('L' + Component.class.getName().replace('.', '/') + ';').getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+    private final ByteBuffer buffer;
+    /**
+     * The offset of the bytes of the Utf8 constants, -1 for the other constants.
+     */
+    private int[] utf8Offsets;
+    private int[] utf8Lengths;
+
+    private ComponentClassFilter(byte[] classFile) {
+        buffer = ByteBuffer.wrap(classFile);
+    }
+
+    /**
+     * Read the {@link Component} annotations of a class file.
+     *
+     * @param classFile the bytes of the class file
+     * @return the combination of {@link #COMPONENT} and {@link #FACTORIES}, both if the class file cannot be read
+     */
+    static int read(byte[] classFile) {
+        try {
+            return new ComponentClassFilter(classFile).read();
+        } catch (RuntimeException e) {
+            // not a class file we understand, the class loader will decide
+            return COMPONENT | FACTORIES;
+        }
+    }
+
+    private int read() {
+        if (buffer.getInt() != MAGIC) {
+            return COMPONENT | FACTORIES;
+        }
+        // minor and major versions
+        buffer.position(buffer.position() + 4);
+        readConstantPool();
+        // access flags, this class, super class
+        buffer.position(buffer.position() + 6);
+        var interfaces = u2();
+        buffer.position(buffer.position() + interfaces * 2);
+        // fields
+        var fields = u2();
+        for (var i = 0; i < fields; i++) {
+            buffer.position(buffer.position() + 6);
+            skipAttributes();
+        }
+        // methods
+        var methods = u2();
+        var annotatedMethod = false;
+        for (var i = 0; i < methods; i++) {
+            buffer.position(buffer.position() + 6);
+            annotatedMethod |= readAttributes();
+        }
+        var flags = readAttributes() ? COMPONENT : 0;
+        return annotatedMethod ? flags | FACTORIES : flags;
+    }
+
+    private void readConstantPool() {
+        var count = u2();
+        utf8Offsets = new int[count];
+        utf8Lengths = new int[count];
+        for (var i = 1; i < count; i++) {
+            utf8Offsets[i] = -1;
+            var tag = buffer.get();
+            switch (tag) {
+                case 1 -> {
+                    var length = u2();
+                    utf8Offsets[i] = buffer.position();
+                    utf8Lengths[i] = length;
+                    buffer.position(buffer.position() + length);
+                }
+                case 7, 8, 16, 19, 20 -> buffer.position(buffer.position() + 2);
+                case 15 -> buffer.position(buffer.position() + 3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> buffer.position(buffer.position() + 4);
+                case 5, 6 -> {
+                    // long and double take two entries
+                    buffer.position(buffer.position() + 8);
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private void skipAttributes() {
+        var count = u2();
+        for (var i = 0; i < count; i++) {
+            buffer.position(buffer.position() + 2);
+            var length = buffer.getInt();
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    /**
+     * Read attributes.
+     *
+     * @return true if there is a RuntimeVisibleAnnotations attribute containing {@link Component}
+     */
+    private boolean readAttributes() {
+        var count = u2();
+        var found = false;
+        for (var i = 0; i < count; i++) {
+            var name = u2();
+            var length = buffer.getInt();
+            var end = buffer.position() + length;
+            if (!found && utf8Equals(name, RUNTIME_VISIBLE_ANNOTATIONS)) {
+                var annotations = u2();
+                for (var j = 0; j < annotations && !found; j++) {
+                    found = readAnnotation();
+                }
+            }
+            buffer.position(end);
+        }
+        return found;
+    }
+
+    /**
+     * Read an annotation.
+     *
+     * @return true if it is {@link Component}
+     */
+    private boolean readAnnotation() {
+        var type = u2();
+        var pairs = u2();
+        for (var i = 0; i < pairs; i++) {
+            buffer.position(buffer.position() + 2);
+            skipElementValue();
+        }
+        return utf8Equals(type, COMPONENT_DESCRIPTOR);
+    }
+
+    private void skipElementValue() {
+        var tag = (char) buffer.get();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> buffer.position(buffer.position() + 2);
+            case 'e' -> buffer.position(buffer.position() + 4);
+            case '@' -> readAnnotation();
+            case '[' -> {
+                var values = u2();
+                for (var i = 0; i < values; i++) {
+                    skipElementValue();
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown element value tag " + tag);
+        }
+    }
+
+    private boolean utf8Equals(int index, byte[] expected) {
+        var offset = utf8Offsets[index];
+        if (offset == -1 || utf8Lengths[index] != expected.length) {
+            return false;
+        }
+        var bytes = buffer.array();
+        for (var i = 0; i < expected.length; i++) {
+            if (bytes[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int u2() {
+        return buffer.getShort() & 0xFFFF;
+    }
+}
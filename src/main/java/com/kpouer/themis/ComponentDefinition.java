@@ -17,22 +17,142 @@ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
 */
 package com.kpouer.themis;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * The definition of a component.
+ * The instance of a singleton is published through a volatile field so that once created it is returned without
+ * locking. The first creation is done by the first caller, the concurrent callers wait for the same future without
+ * holding a monitor. If waiting would create a deadlock (circular dependency created by several threads) it is
+ * reported instead.
+ *
  * @author Matthieu Casanova
  */
 @Getter
 @Setter
 class ComponentDefinition<T> {
+    private static final VarHandle CREATION;
+
+    /**
+     * The definitions waited for by the threads, it is the wait-for graph used to detect deadlocks.
+     * key: the waiting thread
+     * value: the definition it waits for.
+     */
+    private static final Map<Thread, ComponentDefinition<?>> WAITING = new ConcurrentHashMap<>();
+    /**
+     * The singleton definitions being created by the threads.
+     * key: the creating thread
+     * value: the innermost definition it creates, the others are found following {@link #parent}.
+     */
+    private static final Map<Thread, ComponentDefinition<?>> CREATING = new ConcurrentHashMap<>();
+    /**
+     * The sequence of the singleton creations, a singleton is always created after its dependencies.
+     */
+    private static final AtomicLong CREATION_SEQUENCE = new AtomicLong();
+
+    static {
+        try {
+            CREATION = MethodHandles.lookup().findVarHandle(ComponentDefinition.class, "creation", CompletableFuture.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The name of the component, set when it is registered.
+     */
+    private String name;
     private final Class<T> clazz;
     private final boolean singleton;
     private final boolean lazy;
     private Creator<T> creator;
-    private T instance;
+    /**
+     * The scope of the component, null for a singleton or a prototype.
+     */
+    private Scope scope;
+    /**
+     * The pool of a {@link com.kpouer.themis.annotation.Pooled} prototype, null for the other components.
+     */
+    private ComponentPool<T> pool;
+    /**
+     * The metrics of the component, null if they are disabled.
+     */
+    private ComponentMetrics metrics;
+    /**
+     * The startup profiler of the container, null if it is disabled.
+     */
+    private StartupProfiler profiler;
+    /**
+     * The component declaring the factory method creating this component, null for the other components.
+     */
+    private ComponentDefinition<?> declaringDefinition;
+    /**
+     * The usage profile of the container until the first use of the component, null if it is disabled or once the
+     * use is recorded.
+     */
+    private UsageProfile usageProfile;
+    /**
+     * The creator given to the scope and to the pool, it records the metrics and the startup profile.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private final Creator<T> instrumentedCreator = this::create;
+    private volatile T instance;
+    /**
+     * The creation of the singleton, set by the first caller.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile CompletableFuture<T> creation;
+    /**
+     * The definition that was being created by the owner thread when it started creating this one.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ComponentDefinition<?> parent;
+    /**
+     * The position of the singleton in the creation sequence, 0 if it was not created by the container.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private volatile long creationIndex;
+    /**
+     * The dependencies of the singleton when it was created, null if they are unknown (supplier).
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private List<ComponentDefinition<?>> creationDependencies;
+    /**
+     * The component referenced by a {@link Provider}, a {@link java.util.function.Supplier} or a lazy proxy, null for
+     * the other definitions. It is not a creation dependency, but the component must be destroyed after the components
+     * using the reference.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private ComponentProvider<?> reference;
+    /**
+     * The registry version for which the dependency graph of the definition was checked for cycles, -1 if it was not.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private volatile long acyclicVersion = -1;
 
     public ComponentDefinition(Class<T> clazz, boolean singleton, boolean lazy, Creator<T> creator) {
         this.clazz = clazz;
@@ -44,6 +164,7 @@ class ComponentDefinition<T> {
     private ComponentDefinition(T instance) {
         clazz = (Class<T>) instance.getClass();
         this.instance = instance;
+        creation = CompletableFuture.completedFuture(instance);
         singleton = true;
         lazy = false;
     }
@@ -60,34 +181,390 @@ class ComponentDefinition<T> {
         return new ComponentDefinition<>(instance);
     }
 
-    public static <T> ComponentDefinition<T> create(ThemisImpl themis, ComponentDefinition<T> componentDefinition, Method method, boolean singleton, boolean lazy) {
+    public static <T> ComponentDefinition<T> create(ThemisImpl themis, ComponentDefinition<?> componentDefinition, Method method, boolean singleton, boolean lazy) {
         var creator = new MethodCreator<T>(themis, componentDefinition, method);
         var clazz = (Class<T>) method.getReturnType();
         return new ComponentDefinition<>(clazz, singleton, lazy, creator);
     }
 
+    /**
+     * Create the definition of a component created by a factory method returning a {@link java.util.concurrent.CompletionStage}.
+     *
+     * @param themis              the container
+     * @param componentDefinition the definition of the component declaring the method
+     * @param method              the factory method
+     * @param clazz               the class of the component completing the stage
+     * @param singleton           true if the component is a singleton
+     * @param lazy                true if the component is lazy
+     * @return the component definition
+     * @param <T> the type of the component
+     */
+    public static <T> ComponentDefinition<T> createAsync(ThemisImpl themis,
+                                                         ComponentDefinition<?> componentDefinition,
+                                                         Method method,
+                                                         Class<T> clazz,
+                                                         boolean singleton,
+                                                         boolean lazy) {
+        var creator = new AsyncMethodCreator<T>(themis, componentDefinition, method);
+        return new ComponentDefinition<>(clazz, singleton, lazy, creator);
+    }
+
     public static <T> ComponentDefinition<T> create(ThemisImpl themis, Class<T> clazz, boolean singleton, boolean lazy) {
         ConstructorCreator<T> creator = new ConstructorCreator<>(themis, clazz);
         return new ComponentDefinition<>(clazz, singleton, lazy, creator);
     }
 
+    /**
+     * Returns the definitions of the components needed to create this one.
+     * Once a singleton is created, or if its creator was generated, there is no known dependency.
+     *
+     * @return the dependencies
+     * @throws ComponentIocException if a dependency cannot be resolved
+     */
+    List<ComponentDefinition<?>> getDependencies() {
+        if (creator instanceof AbstractCreator<T> abstractCreator) {
+            return abstractCreator.getDependencies();
+        }
+        return List.of();
+    }
+
     public T getInstance() {
-        synchronized (this) {
-            if (instance == null) {
-                var newInstance = creator.create();
-                if (singleton) {
-                    // if it is a singleton then we store the instance and release the creator
-                    this.instance = newInstance;
-                    creator = null;
-                }
-                return newInstance;
+        lookedUp();
+        var current = instance;
+        if (current != null) {
+            return current;
+        }
+        if (scope != null) {
+            return scope.get(name, instrumentedCreator);
+        }
+        if (!singleton) {
+            checkNotPooled();
+            return create();
+        }
+        return getOrCreateSingleton();
+    }
+
+    /**
+     * Count the lookup in the metrics and record the first use in the usage profile.
+     */
+    private void lookedUp() {
+        var componentMetrics = metrics;
+        if (componentMetrics != null) {
+            componentMetrics.lookup();
+        }
+        var profile = usageProfile;
+        if (profile != null) {
+            usageProfile = null;
+            profile.used(this);
+        }
+    }
+
+    private T create() {
+        var startupProfiler = profiler;
+        if (startupProfiler == null) {
+            return createMeasured();
+        }
+        var frame = StartupProfiler.enter();
+        T newInstance;
+        try {
+            newInstance = createMeasured();
+        } finally {
+            StartupProfiler.exit(frame);
+        }
+        startupProfiler.record(this, frame);
+        return newInstance;
+    }
+
+    private T createMeasured() {
+        var componentMetrics = metrics;
+        if (componentMetrics == null) {
+            return creator.create();
+        }
+        var start = System.nanoTime();
+        var newInstance = creator.create();
+        componentMetrics.created(System.nanoTime() - start);
+        return newInstance;
+    }
+
+    /**
+     * Record the creation time of an asynchronous component when its future completes.
+     */
+    private CompletableFuture<T> measure(CompletableFuture<T> future) {
+        var componentMetrics = metrics;
+        if (componentMetrics == null) {
+            return future;
+        }
+        var start = System.nanoTime();
+        return future.whenComplete((newInstance, throwable) -> {
+            if (throwable == null) {
+                componentMetrics.created(System.nanoTime() - start);
             }
+        });
+    }
+
+    private T getOrCreateSingleton() {
+        // the owner is known before the creation is published, so a waiting thread always sees it
+        var future = new Creation<T>(Thread.currentThread());
+        var existing = (CompletableFuture<T>) CREATION.compareAndExchange(this, null, future);
+        if (existing == null) {
+            return createSingleton(future);
         }
+        if (existing.isDone() && !existing.isCompletedExceptionally()) {
+            return existing.join();
+        }
+        return await(existing);
+    }
+
+    private T createSingleton(Creation<T> future) {
+        var currentThread = Thread.currentThread();
+        future.owner = currentThread;
+        parent = CREATING.put(currentThread, this);
+        try {
+            var newInstance = create();
+            created(newInstance);
+            future.complete(newInstance);
+            return newInstance;
+        } catch (RuntimeException | Error e) {
+            // the creation can be attempted again later
+            creation = null;
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (parent == null) {
+                CREATING.remove(currentThread);
+            } else {
+                CREATING.put(currentThread, parent);
+            }
+            parent = null;
+        }
+    }
+
+    /**
+     * Publish the instance of the singleton.
+     */
+    private void created(T newInstance) {
+        // the dependencies are kept for the shutdown
+        creationDependencies = creator instanceof AbstractCreator<T> abstractCreator ? abstractCreator.getDependencies() : null;
+        creationIndex = CREATION_SEQUENCE.incrementAndGet();
+        // we store the instance and release the creator
+        instance = newInstance;
+        creator = null;
+    }
+
+    /**
+     * Returns the published instance of the singleton, unlike {@link #getInstance()} it is not counted as a lookup
+     * nor recorded as a use. It is used to destroy the singleton.
+     *
+     * @return the instance or null if the singleton was not created
+     */
+    T getCreatedInstance() {
         return instance;
     }
 
+    /**
+     * Drop the published instance of an unregistered singleton, the definition then fails instead of returning an
+     * instance that is destroyed.
+     *
+     * @return the instance or null if the singleton was not created
+     */
+    T release() {
+        var current = instance;
+        creation = CompletableFuture.failedFuture(new ComponentIocException("The component " + name + " is unregistered"));
+        instance = null;
+        return current;
+    }
+
+    /**
+     * Returns the instance without blocking the caller.
+     * A component created by an asynchronous factory method is completed by the future returned by the method,
+     * the other components are created by the executor. The scoped components are resolved by the caller since
+     * the scopes are bound to its thread.
+     *
+     * @param executor the executor creating the components
+     * @return the future instance
+     */
+    CompletableFuture<T> getInstanceAsync(Executor executor) {
+        lookedUp();
+        var current = instance;
+        if (current != null) {
+            return CompletableFuture.completedFuture(current);
+        }
+        if (scope != null) {
+            try {
+                return CompletableFuture.completedFuture(scope.get(name, instrumentedCreator));
+            } catch (RuntimeException | Error e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        if (!singleton) {
+            if (pool != null) {
+                return CompletableFuture.failedFuture(getPooledException());
+            }
+            if (creator instanceof AsyncMethodCreator<T> asyncCreator) {
+                return measure(asyncCreator.createAsync(executor));
+            }
+            return CompletableFuture.supplyAsync(this::create, executor);
+        }
+        // the owner is the executor thread, it is set when the creation starts
+        var future = new Creation<T>(null);
+        var existing = (CompletableFuture<T>) CREATION.compareAndExchange(this, null, future);
+        if (existing != null) {
+            return existing;
+        }
+        if (creator instanceof AsyncMethodCreator<T> asyncCreator) {
+            measure(asyncCreator.createAsync(executor)).whenComplete((newInstance, throwable) -> {
+                if (throwable == null) {
+                    created(newInstance);
+                    future.complete(newInstance);
+                } else {
+                    creation = null;
+                    future.completeExceptionally(unwrap(throwable));
+                }
+            });
+        } else {
+            try {
+                executor.execute(() -> {
+                    try {
+                        createSingleton(future);
+                    } catch (RuntimeException | Error e) {
+                        // the failure is reported by the future
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                creation = null;
+                future.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * A pooled instance must be returned to its pool, so a pooled component is only available from its pool.
+     *
+     * @throws ComponentIocException if the component is pooled
+     */
+    void checkNotPooled() throws ComponentIocException {
+        if (pool != null) {
+            throw getPooledException();
+        }
+    }
+
+    private ComponentIocException getPooledException() {
+        return new ComponentIocException("The component " + name + " is pooled, its instances are borrowed from its pool");
+    }
+
+    static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    /**
+     * Wait for the creation of the singleton by another thread.
+     *
+     * @param future the creation future
+     * @return the instance
+     * @throws ComponentIocException if the creation failed, or if waiting would cause a deadlock
+     */
+    private T await(CompletableFuture<T> future) {
+        var currentThread = Thread.currentThread();
+        if (getOwner() == currentThread) {
+            throw new ComponentIocException("Circular dependency detected " + getCreationPath(currentThread));
+        }
+        WAITING.put(currentThread, this);
+        var componentMetrics = metrics;
+        var timed = componentMetrics != null || profiler != null;
+        var start = timed ? System.nanoTime() : 0;
+        try {
+            checkDeadlock(currentThread);
+            return future.get();
+        } catch (InterruptedException e) {
+            currentThread.interrupt();
+            throw new ComponentIocException("Interrupted while waiting for component " + name, e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new ComponentIocException("Unable to create component " + name, (Exception) cause);
+        } finally {
+            WAITING.remove(currentThread);
+            if (timed) {
+                var waitTime = System.nanoTime() - start;
+                if (componentMetrics != null) {
+                    componentMetrics.waited(waitTime);
+                }
+                StartupProfiler.waited(waitTime);
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the singletons being created by the current thread since this one was started.
+     */
+    private String getCreationPath(Thread currentThread) {
+        var path = new ArrayDeque<String>();
+        path.push(name);
+        var definition = CREATING.get(currentThread);
+        while (definition != null && definition != this) {
+            path.push(definition.name);
+            definition = definition.parent;
+        }
+        path.push(name);
+        return String.join(" -> ", path);
+    }
+
+    /**
+     * Follow the wait-for graph from this definition, if it leads to the current thread, waiting would never end.
+     */
+    private void checkDeadlock(Thread currentThread) {
+        var path = new ArrayList<String>();
+        var creating = CREATING.get(currentThread);
+        if (creating != null) {
+            path.add(creating.name);
+        }
+        path.add(name);
+        ComponentDefinition<?> definition = this;
+        while (definition != null) {
+            var definitionOwner = definition.getOwner();
+            if (definitionOwner == null) {
+                return;
+            }
+            if (definitionOwner == currentThread) {
+                throw new ComponentIocException("Deadlock detected, circular dependency between " + String.join(" -> ", path));
+            }
+            definition = WAITING.get(definitionOwner);
+            if (definition != null) {
+                path.add(definition.name);
+            }
+            if (path.size() > WAITING.size() + 2) {
+                // the graph changed while we were walking it, a deadlock can't involve more definitions than waiting threads
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the thread creating the singleton, null if it is not being created.
+     */
+    private Thread getOwner() {
+        return creation instanceof Creation<T> running && !running.isDone() ? running.owner : null;
+    }
+
     @Override
     public String toString() {
-        return "ComponentDefinition{clazz=" + clazz + ", singleton=" + singleton + ", lazy=" + lazy + '}';
+        return "ComponentDefinition{name=" + name + ", clazz=" + clazz + ", singleton=" + singleton + ", lazy=" + lazy + ", scope=" + scope + '}';
+    }
+
+    /**
+     * The creation of a singleton, it carries the thread creating it for the deadlock detection.
+     */
+    private static final class Creation<T> extends CompletableFuture<T> {
+        private volatile Thread owner;
+
+        private Creation(Thread owner) {
+            this.owner = owner;
+        }
     }
 }
@@ -0,0 +1,49 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The failure of a component when the components are created or destroyed together.
+ *
+ * @param definition the definition of the component
+ * @param exception  the exception
+ * @author Matthieu Casanova
+ */
+record ComponentFailure(ComponentDefinition<?> definition, Throwable exception) {
+    /**
+     * Returns a single exception reporting all the failures, their exceptions are suppressed exceptions.
+     *
+     * @param message  the message, it is followed by the names of the components
+     * @param failures the failures
+     * @return the exception
+     */
+    static ComponentIocException getReport(String message, Collection<ComponentFailure> failures) {
+        var names = new ArrayList<String>(failures.size());
+        for (var failure : failures) {
+            names.add(failure.definition().getName() + " (" + failure.exception() + ')');
+        }
+        var exception = new ComponentIocException(message + ": " + String.join(", ", names));
+        for (var failure : failures) {
+            exception.addSuppressed(failure.exception());
+        }
+        return exception;
+    }
+}
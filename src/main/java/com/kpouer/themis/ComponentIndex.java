@@ -0,0 +1,247 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The index of the components.
+ * It is generated at compile time by the themis-processor annotation processor, or built by scanning the classpath.
+ * Each line of the index is either the binary name of a class annotated with
+ * {@link com.kpouer.themis.annotation.Component} or the name of a factory method as
+ * <code>className#methodName</code>, optionally followed by a space and the name of the {@link Creator}
+ * generated in AOT mode. Empty lines and lines starting with <code>#</code> are ignored.
+ *
+ * @author Matthieu Casanova
+ */
+class ComponentIndex {
+    static final String LOCATION = "META-INF/themis.components";
+    private static final MethodType CREATOR_CONSTRUCTOR = MethodType.methodType(void.class, Themis.class);
+    private static final MethodType CREATOR_FACTORY = MethodType.methodType(Creator.class, Themis.class);
+
+    private final Set<String> components = new LinkedHashSet<>();
+    private final Set<String> factories = new HashSet<>();
+    /**
+     * The generated creators
+     * key: the class name or the factory method name
+     * value: the creator class name.
+     */
+    private final Map<String, String> creators = new HashMap<>();
+    /**
+     * The locations of the classpath roots the index was loaded from, as returned by
+     * {@link ClassScanner#getRootLocation(java.net.URL, String)}.
+     */
+    private final Set<String> roots = new HashSet<>();
+    /**
+     * The constructors of the generated creators, they are looked up once for all the containers sharing the index
+     * key: the creator class name
+     * value: the constructor.
+     */
+    private final Map<String, MethodHandle> creatorConstructors = new ConcurrentHashMap<>();
+
+    /**
+     * Load all the component indexes visible from the given class loader.
+     *
+     * @param classLoader the class loader
+     * @return the merged index or null if there is no index at all
+     */
+    static ComponentIndex load(ClassLoader classLoader) {
+        try {
+            var resources = classLoader.getResources(LOCATION);
+            if (!resources.hasMoreElements()) {
+                return null;
+            }
+            var index = new ComponentIndex();
+            do {
+                var resource = resources.nextElement();
+                var root = ClassScanner.getRootLocation(resource, LOCATION);
+                if (root != null) {
+                    index.roots.add(root);
+                }
+                try (var reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        index.addEntry(line.trim());
+                    }
+                }
+            } while (resources.hasMoreElements());
+            return index;
+        } catch (IOException | URISyntaxException e) {
+            throw new ComponentIocException("Unable to read component index " + LOCATION, e);
+        }
+    }
+
+    /**
+     * Add a component found by scanning.
+     *
+     * @param className the component class name
+     * @param factories true if it declares factory methods
+     */
+    void addComponent(String className, boolean factories) {
+        components.add(className);
+        if (factories) {
+            this.factories.add(className);
+        }
+    }
+
+    /**
+     * Add the components of another index.
+     *
+     * @param index the index
+     */
+    void addAll(ComponentIndex index) {
+        components.addAll(index.components);
+        factories.addAll(index.factories);
+        creators.putAll(index.creators);
+        roots.addAll(index.roots);
+    }
+
+    /**
+     * Returns the number of components.
+     */
+    int size() {
+        return components.size();
+    }
+
+    private void addEntry(String entry) {
+        if (entry.isEmpty() || entry.charAt(0) == '#') {
+            return;
+        }
+        var creatorSeparator = entry.indexOf(' ');
+        if (creatorSeparator != -1) {
+            var creator = entry.substring(creatorSeparator + 1).trim();
+            entry = entry.substring(0, creatorSeparator);
+            creators.put(entry, creator);
+        }
+        var separator = entry.indexOf('#');
+        if (separator == -1) {
+            components.add(entry);
+        } else {
+            factories.add(entry.substring(0, separator));
+        }
+    }
+
+    /**
+     * Returns the indexed component class names that are in the given package or one of its subpackages.
+     *
+     * @param packageName the package name
+     * @return the class names
+     */
+    List<String> getComponents(String packageName) {
+        var prefix = packageName + '.';
+        var result = new ArrayList<String>();
+        for (var component : components) {
+            if (component.startsWith(prefix)) {
+                result.add(component);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tells if the index contains a component in the given package or one of its subpackages.
+     *
+     * @param packageName the package name
+     * @return true if the package is indexed
+     */
+    boolean containsPackage(String packageName) {
+        var prefix = packageName + '.';
+        return components.stream().anyMatch(component -> component.startsWith(prefix));
+    }
+
+    /**
+     * Tells if the index was loaded from a classpath root, the components of that root are all indexed.
+     *
+     * @param rootLocation the location of the root
+     * @return true if the root has an index
+     */
+    boolean isIndexed(String rootLocation) {
+        return roots.contains(rootLocation);
+    }
+
+    /**
+     * Tells if the class may declare factory methods.
+     * Only classes known by the index can be excluded, other classes might have been registered by other means.
+     *
+     * @param clazz the class
+     * @return true if the class has to be inspected for factory methods
+     */
+    boolean mayDeclareFactories(Class<?> clazz) {
+        var name = clazz.getName();
+        return factories.contains(name) || !components.contains(name);
+    }
+
+    /**
+     * Returns the creator generated for a component class.
+     *
+     * @param clazz the component class
+     * @return the creator class name or null if there is none
+     */
+    String getCreator(Class<?> clazz) {
+        return creators.get(clazz.getName());
+    }
+
+    /**
+     * Returns the creator generated for a factory method.
+     *
+     * @param method the factory method
+     * @return the creator class name or null if there is none
+     */
+    String getCreator(Method method) {
+        return creators.get(method.getDeclaringClass().getName() + '#' + method.getName());
+    }
+
+    /**
+     * Instantiate a creator generated by themis-processor.
+     *
+     * @param creatorName the class name of the creator
+     * @param themis      the container
+     * @return the creator
+     * @throws ComponentIocException if the creator cannot be instantiated
+     */
+    <T> Creator<T> newCreator(String creatorName, Themis themis) throws ComponentIocException {
+        var constructor = creatorConstructors.computeIfAbsent(creatorName, ComponentIndex::findCreatorConstructor);
+        try {
+            return (Creator<T>) (Creator<?>) constructor.invokeExact(themis);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // the constructor of a generated creator has no checked exception
+            throw new ComponentIocException(e);
+        }
+    }
+
+    private static MethodHandle findCreatorConstructor(String creatorName) {
+        try {
+            var creatorClass = Class.forName(creatorName, false, ComponentIndex.class.getClassLoader());
+            return MethodHandles.publicLookup().findConstructor(creatorClass, CREATOR_CONSTRUCTOR).asType(CREATOR_FACTORY);
+        } catch (ReflectiveOperationException e) {
+            throw new ComponentIocException("Unable to find the constructor of generated creator " + creatorName, e);
+        }
+    }
+}
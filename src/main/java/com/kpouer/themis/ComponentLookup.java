@@ -0,0 +1,42 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * The lookup creating the method handles that call the constructors and methods of the components.
+ *
+ * @author Matthieu Casanova
+ */
+final class ComponentLookup {
+    private ComponentLookup() {
+    }
+
+    /**
+     * Returns a lookup able to access the public members of a component class.
+     *
+     * @param componentClass the component class
+     * @return the lookup
+     */
+    static MethodHandles.Lookup of(Class<?> componentClass) {
+        // the lookup checks the readability of the component module, unlike reflection it is not implicit
+        ComponentLookup.class.getModule().addReads(componentClass.getModule());
+        return MethodHandles.lookup();
+    }
+}
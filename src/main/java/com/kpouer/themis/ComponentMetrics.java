@@ -0,0 +1,97 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a component, collected when they are enabled in the {@link ThemisConfiguration}.
+ * The counters are striped so that recording them doesn't add contention between the threads using the component.
+ *
+ * @author Matthieu Casanova
+ */
+public final class ComponentMetrics {
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder creationTime = new LongAdder();
+    private final LongAccumulator maxCreationTime = new LongAccumulator(Long::max, 0);
+    private final LongAdder waitTime = new LongAdder();
+
+    ComponentMetrics() {
+    }
+
+    void lookup() {
+        lookups.increment();
+    }
+
+    void created(long nanos) {
+        creations.increment();
+        creationTime.add(nanos);
+        maxCreationTime.accumulate(nanos);
+    }
+
+    void waited(long nanos) {
+        waitTime.add(nanos);
+    }
+
+    /**
+     * Returns the number of times the component was requested, by a lookup or to be injected.
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Returns the number of instances created.
+     */
+    public long getCreations() {
+        return creations.sum();
+    }
+
+    /**
+     * Returns the total time spent creating the instances, including their dependencies.
+     */
+    public Duration getTotalCreationTime() {
+        return Duration.ofNanos(creationTime.sum());
+    }
+
+    /**
+     * Returns the longest time spent creating an instance.
+     */
+    public Duration getMaxCreationTime() {
+        return Duration.ofNanos(maxCreationTime.get());
+    }
+
+    /**
+     * Returns the time spent by threads waiting for a singleton created by another thread.
+     */
+    public Duration getWaitTime() {
+        return Duration.ofNanos(waitTime.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "ComponentMetrics{lookups=" + getLookups() +
+            ", creations=" + getCreations() +
+            ", totalCreationTime=" + getTotalCreationTime() +
+            ", maxCreationTime=" + getMaxCreationTime() +
+            ", waitTime=" + getWaitTime() + '}';
+    }
+}
@@ -0,0 +1,370 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.annotation.Pooled;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The pool of the instances of a {@link Pooled} component.
+ * An instance is borrowed with {@link #borrow()} and returned by closing the handle, or with {@link #acquire()}
+ * and {@link #release(Object)}. The instances are created and destroyed outside the lock of the pool, the idle
+ * instances are evicted when the pool is used.
+ *
+ * @param <T> the type of the component
+ * @author Matthieu Casanova
+ */
+public final class ComponentPool<T> {
+    private final String name;
+    private final Creator<T> creator;
+    private final int min;
+    private final int max;
+    private final long idleTimeout;
+    private final long maxWait;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    /**
+     * The idle instances, the most recently returned first.
+     */
+    private final Deque<IdleInstance<T>> idle = new ArrayDeque<>();
+    /**
+     * The borrowed instances, only they can be released.
+     */
+    private final Set<T> borrowedInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * The number of instances, idle, borrowed or being created.
+     */
+    private int size;
+    private int active;
+    private long created;
+    private long destroyed;
+    private long borrowed;
+    private long waited;
+    private long timeouts;
+    private volatile boolean started;
+    private boolean closed;
+
+    ComponentPool(String name, Creator<T> creator, Pooled pooled) throws ComponentIocException {
+        if (pooled.max() < 1 || pooled.min() < 0 || pooled.min() > pooled.max()) {
+            throw new ComponentIocException("Invalid pool size for component " + name + ", min=" + pooled.min() + ", max=" + pooled.max());
+        }
+        this.name = name;
+        this.creator = creator;
+        min = pooled.min();
+        max = pooled.max();
+        idleTimeout = TimeUnit.MILLISECONDS.toNanos(pooled.idleTimeout());
+        maxWait = TimeUnit.MILLISECONDS.toNanos(pooled.maxWait());
+    }
+
+    /**
+     * Borrow an instance, it is returned to the pool when the handle is closed.
+     *
+     * @return the handle of the instance
+     * @throws ComponentIocException if no instance is available in time or if it cannot be created
+     */
+    public PooledComponent<T> borrow() throws ComponentIocException {
+        return new PooledComponent<>(this, acquire());
+    }
+
+    /**
+     * Borrow an instance, it must be returned with {@link #release(Object)}.
+     *
+     * @return the instance
+     * @throws ComponentIocException if no instance is available in time or if it cannot be created
+     */
+    public T acquire() throws ComponentIocException {
+        prefill();
+        var evicted = new ArrayList<T>();
+        T instance = null;
+        lock.lock();
+        try {
+            var deadline = System.nanoTime() + maxWait;
+            var waiting = false;
+            while (true) {
+                if (closed) {
+                    throw new ComponentIocException("The pool of component " + name + " is closed");
+                }
+                evict(evicted);
+                var idleInstance = idle.pollFirst();
+                if (idleInstance != null) {
+                    instance = idleInstance.instance();
+                    borrowedInstances.add(instance);
+                    break;
+                }
+                if (size < max) {
+                    // the slot is reserved, the instance is created once the lock is released
+                    size++;
+                    break;
+                }
+                var remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts++;
+                    throw new ComponentIocException("No instance of component " + name + " available after " +
+                                                    TimeUnit.NANOSECONDS.toMillis(maxWait) + "ms, the " + max +
+                                                    " instances are borrowed");
+                }
+                if (!waiting) {
+                    waiting = true;
+                    waited++;
+                }
+                available.awaitNanos(remaining);
+            }
+            active++;
+            borrowed++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComponentIocException("Interrupted while waiting for component " + name, e);
+        } finally {
+            lock.unlock();
+            destroyQuietly(evicted);
+        }
+        if (instance == null) {
+            instance = createReserved(true);
+        }
+        return instance;
+    }
+
+    /**
+     * Create the min instances the first time the pool is used.
+     */
+    private void prefill() {
+        if (started) {
+            return;
+        }
+        int count;
+        lock.lock();
+        try {
+            if (started) {
+                return;
+            }
+            started = true;
+            count = min;
+            size += count;
+        } finally {
+            lock.unlock();
+        }
+        for (var i = 0; i < count; i++) {
+            var instance = createReserved(false);
+            if (instance != null) {
+                release(instance, false);
+            }
+        }
+    }
+
+    /**
+     * Create an instance in a reserved slot, the slot is freed if the creation fails.
+     *
+     * @param borrowed true if the instance is borrowed, false if it prefills the pool
+     * @return the instance or null if the pool is prefilled and the creation failed
+     */
+    private T createReserved(boolean borrowed) {
+        try {
+            var instance = creator.create();
+            lock.lock();
+            try {
+                created++;
+                if (borrowed) {
+                    borrowedInstances.add(instance);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return instance;
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                size--;
+                if (borrowed) {
+                    active--;
+                    this.borrowed--;
+                }
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (borrowed) {
+                throw e;
+            }
+            // the pool will create the instance when it is needed
+            return null;
+        }
+    }
+
+    /**
+     * Return an instance to the pool, its {@link com.kpouer.themis.annotation.PoolReset} methods are called.
+     *
+     * @param instance the instance borrowed from this pool
+     * @throws ComponentIocException if the instance was not borrowed from this pool or was already released, or if
+     *                               it cannot be reset, it is then destroyed
+     */
+    public void release(T instance) throws ComponentIocException {
+        lock.lock();
+        try {
+            if (!borrowedInstances.remove(instance)) {
+                throw new ComponentIocException("The instance was not borrowed from the pool of component " + name +
+                                                " or was already released");
+            }
+        } finally {
+            lock.unlock();
+        }
+        release(instance, true);
+    }
+
+    private void release(T instance, boolean borrowed) throws ComponentIocException {
+        ComponentIocException resetFailure = null;
+        try {
+            LifecycleMetadata.of(instance.getClass()).invokePoolReset(instance);
+        } catch (ComponentIocException e) {
+            resetFailure = e;
+        }
+        var discard = resetFailure != null;
+        var evicted = new ArrayList<T>();
+        lock.lock();
+        try {
+            if (borrowed) {
+                active--;
+            }
+            if (closed || discard) {
+                discard = true;
+                size--;
+                destroyed++;
+            } else {
+                idle.offerFirst(new IdleInstance<>(instance, System.nanoTime()));
+                evict(evicted);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        destroyQuietly(evicted);
+        if (discard) {
+            try {
+                LifecycleMetadata.of(instance.getClass()).invokePreDestroy(instance);
+            } catch (ComponentIocException e) {
+                if (resetFailure == null) {
+                    throw e;
+                }
+                resetFailure.addSuppressed(e);
+            }
+        }
+        if (resetFailure != null) {
+            throw resetFailure;
+        }
+    }
+
+    /**
+     * Remove the instances idle for too long, keeping at least min instances. Must be called with the lock.
+     */
+    private void evict(List<T> evicted) {
+        if (idleTimeout == 0) {
+            return;
+        }
+        var now = System.nanoTime();
+        while (size > min) {
+            var oldest = idle.peekLast();
+            if (oldest == null || now - oldest.since() < idleTimeout) {
+                return;
+            }
+            idle.pollLast();
+            size--;
+            destroyed++;
+            evicted.add(oldest.instance());
+        }
+    }
+
+    private static <T> void destroyQuietly(List<T> evicted) {
+        for (var instance : evicted) {
+            try {
+                LifecycleMetadata.of(instance.getClass()).invokePreDestroy(instance);
+            } catch (ComponentIocException e) {
+                // the instance is discarded anyway
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of the pool.
+     *
+     * @return a snapshot of the statistics
+     */
+    public Statistics getStatistics() {
+        lock.lock();
+        try {
+            return new Statistics(size, idle.size(), active, created, destroyed, borrowed, waited, timeouts);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the pool, the idle instances are destroyed and the borrowed ones will be destroyed when returned.
+     *
+     * @throws ComponentIocException if an instance cannot be destroyed, the others are destroyed
+     */
+    void close() throws ComponentIocException {
+        var instances = new ArrayList<Object>();
+        lock.lock();
+        try {
+            closed = true;
+            while (!idle.isEmpty()) {
+                instances.add(idle.pollLast().instance());
+            }
+            size -= instances.size();
+            destroyed += instances.size();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        LifecycleMetadata.destroy(instances);
+    }
+
+    @Override
+    public String toString() {
+        return "ComponentPool{name=" + name + ", " + getStatistics() + '}';
+    }
+
+    /**
+     * The statistics of a pool.
+     *
+     * @param size      the number of instances, idle, borrowed or being created
+     * @param idle      the number of idle instances
+     * @param active    the number of borrowed instances
+     * @param created   the number of instances created
+     * @param destroyed the number of instances destroyed
+     * @param borrowed  the number of times an instance was borrowed
+     * @param waited    the number of times a borrower had to wait for an instance
+     * @param timeouts  the number of times a borrower got no instance in time
+     */
+    public record Statistics(int size, int idle, int active, long created, long destroyed, long borrowed, long waited,
+                             long timeouts) {
+    }
+
+    private record IdleInstance<T>(T instance, long since) {
+    }
+}
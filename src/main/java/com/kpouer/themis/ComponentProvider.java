@@ -0,0 +1,88 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.function.Supplier;
+
+/**
+ * The {@link Provider} injected for a component definition, it is also the {@link ComponentRef} returned by the
+ * container.
+ * The definition is resolved again if the registrations of the container changed since it was resolved, so a
+ * component unregistered then registered again is found.
+ *
+ * @param <T> the type of the component
+ * @author Matthieu Casanova
+ */
+final class ComponentProvider<T> implements ComponentRef<T> {
+    private final ThemisImpl themis;
+    private final Supplier<ComponentDefinition<?>> resolver;
+    private volatile Resolution<T> resolution;
+
+    /**
+     * Create a provider, the definition is resolved immediately.
+     *
+     * @param themis   the container
+     * @param resolver resolves the definition of the component
+     * @throws ComponentIocException if the definition cannot be resolved
+     */
+    ComponentProvider(ThemisImpl themis, Supplier<ComponentDefinition<?>> resolver) {
+        this.themis = themis;
+        this.resolver = resolver;
+        resolution = resolve();
+    }
+
+    @Override
+    public T get() throws ComponentIocException {
+        return getDefinition().getInstance();
+    }
+
+    @Override
+    public String getName() {
+        return getDefinition().getName();
+    }
+
+    /**
+     * Returns the definition the provider was last resolved to, it is not resolved again.
+     */
+    ComponentDefinition<T> getResolvedDefinition() {
+        return resolution.definition();
+    }
+
+    private ComponentDefinition<T> getDefinition() {
+        var current = resolution;
+        if (current.version() != themis.getRegistryVersion()) {
+            current = resolve();
+            resolution = current;
+        }
+        return current.definition();
+    }
+
+    private Resolution<T> resolve() {
+        // the version is read first, a registration during the resolution will resolve it again
+        var version = themis.getRegistryVersion();
+        return new Resolution<>((ComponentDefinition<T>) resolver.get(), version);
+    }
+
+    @Override
+    public String toString() {
+        return "Provider{" + resolution.definition().getName() + '}';
+    }
+
+    private record Resolution<T>(ComponentDefinition<T> definition, long version) {
+    }
+}
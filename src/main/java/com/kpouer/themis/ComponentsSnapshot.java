@@ -0,0 +1,122 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The components of a type, in registration order.
+ * The snapshot is immutable, when all the components are singletons it is kept by the container until a component of
+ * that type is registered.
+ * The snapshot of a child container contains the components of the parent snapshot, a component of the child
+ * replacing the component of the parent with the same name.
+ *
+ * @param <T> the type of the components
+ * @author Matthieu Casanova
+ */
+final class ComponentsSnapshot<T> {
+    private final List<ComponentDefinition<?>> definitions;
+    private final ComponentsSnapshot<T> parent;
+    private final Map<String, T> components;
+    private final List<T> list;
+    private final boolean reusable;
+
+    private ComponentsSnapshot(List<ComponentDefinition<?>> definitions,
+                               ComponentsSnapshot<T> parent,
+                               Map<String, T> components,
+                               boolean reusable) {
+        this.definitions = definitions;
+        this.parent = parent;
+        this.components = Collections.unmodifiableMap(components);
+        list = Collections.unmodifiableList(new ArrayList<>(components.values()));
+        this.reusable = reusable;
+    }
+
+    /**
+     * Creates a snapshot, creating the components if needed.
+     *
+     * @param definitions the definitions of the components of a type
+     * @param parent      the snapshot of the parent container or null
+     * @return the snapshot
+     * @throws ComponentIocException if a component can't be created
+     */
+    static <T> ComponentsSnapshot<T> create(List<ComponentDefinition<?>> definitions,
+                                            ComponentsSnapshot<T> parent) throws ComponentIocException {
+        var components = new LinkedHashMap<String, T>(definitions.size() * 2);
+        var reusable = true;
+        if (parent != null) {
+            components.putAll(parent.components);
+            reusable = parent.reusable;
+        }
+        for (var definition : definitions) {
+            if (definition.getPool() != null) {
+                // the pooled instances are only borrowed from the pool, it still hides a component of the parent
+                components.remove(definition.getName());
+                continue;
+            }
+            components.put(definition.getName(), (T) definition.getInstance());
+            reusable &= definition.isSingleton() && definition.getScope() == null;
+        }
+        return new ComponentsSnapshot<>(definitions, parent, components, reusable);
+    }
+
+    /**
+     * Returns true if the snapshot was created from the given definitions and parent snapshot.
+     * The lists of definitions are replaced when a component is registered, so they are compared by identity.
+     *
+     * @param definitions the current definitions of the type
+     * @param parent      the current snapshot of the parent container or null
+     * @return true if the snapshot is up to date
+     */
+    boolean isSnapshotOf(List<ComponentDefinition<?>> definitions, ComponentsSnapshot<?> parent) {
+        return this.definitions == definitions && this.parent == parent;
+    }
+
+    /**
+     * Returns true if the snapshot contains only singletons and can be returned again.
+     *
+     * @return true if the snapshot can be reused
+     */
+    boolean isReusable() {
+        return reusable;
+    }
+
+    /**
+     * Counts a lookup of each component when the snapshot is reused.
+     */
+    void countLookups() {
+        for (var definition : definitions) {
+            var metrics = definition.getMetrics();
+            if (metrics != null) {
+                metrics.lookup();
+            }
+        }
+    }
+
+    Map<String, T> getComponents() {
+        return components;
+    }
+
+    List<T> getList() {
+        return list;
+    }
+}
@@ -19,18 +19,25 @@ package com.kpouer.themis;
 
 import lombok.ToString;
 
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 
 /**
  * Component creator.
  * It will create the component using it's constructor.
+ * The constructor and its dependencies are resolved once in an {@link InjectionPlan} reused for every creation, the
+ * dependencies are resolved again if the registrations of the container changed.
  *
  * @param <T>
  */
 @ToString
 class ConstructorCreator<T> extends AbstractCreator<T> {
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
     private final Class<T> clazz;
+    @ToString.Exclude
+    private volatile InjectionPlan plan;
 
     ConstructorCreator(ThemisImpl themis, Class<T> clazz) {
         super(themis);
@@ -39,24 +46,56 @@ class ConstructorCreator<T> extends AbstractCreator<T> {
 
     @Override
     public T create() {
-        var constructors = (Constructor<T>[]) clazz.getConstructors();
-        if (constructors.length != 1)
-            throw new ComponentIocException(clazz.getName() + " must have only one constructor");
-
-        var constructor = constructors[0];
-        var parameters = constructor.getParameters();
+        var event = new CreationEvent();
+        event.begin();
+        var injectionPlan = getPlan();
         try {
-            T component;
-            if (parameters.length == 0) {
-                component = constructor.newInstance();
-            } else {
-                var args = themis.getArgs(parameters);
-                component = constructor.newInstance(args);
-            }
+            T component = (T) injectionPlan.getHandle().invokeExact(injectionPlan.getArgs(event));
             invokePostConstruct(component);
+            if (event.shouldCommit()) {
+                event.componentClass = clazz;
+                event.commit();
+            }
             return component;
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+        } catch (ComponentIocException e) {
+            throw e;
+        } catch (Throwable e) {
             throw new ComponentIocException(e);
         }
     }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        return getPlan().getDependencies();
+    }
+
+    private InjectionPlan getPlan() {
+        var injectionPlan = plan;
+        var version = themis.getRegistryVersion();
+        if (injectionPlan == null || injectionPlan.getVersion() != version) {
+            var constructors = (Constructor<T>[]) clazz.getConstructors();
+            if (constructors.length != 1)
+                throw new ComponentIocException(clazz.getName() + " must have only one constructor");
+
+            var constructor = constructors[0];
+            var parameters = constructor.getParameters();
+            var dependencies = themis.getDependencies(parameters);
+            if (injectionPlan == null) {
+                try {
+                    var handle = ComponentLookup.of(clazz)
+                                              .unreflectConstructor(constructor)
+                                              .asSpreader(Object[].class, parameters.length)
+                                              .asType(CONSTRUCTOR_TYPE);
+                    injectionPlan = new InjectionPlan(handle, dependencies, version);
+                } catch (IllegalAccessException e) {
+                    throw new ComponentIocException(e);
+                }
+            } else {
+                // the registrations changed, only the dependencies are resolved again
+                injectionPlan = new InjectionPlan(injectionPlan.getHandle(), dependencies, version);
+            }
+            plan = injectionPlan;
+        }
+        return injectionPlan;
+    }
 }
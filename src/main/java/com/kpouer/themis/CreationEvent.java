@@ -0,0 +1,45 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted when a component is created by a constructor or a factory method.
+ * Its duration includes the resolution of the dependencies, they have their own nested events if they are created.
+ *
+ * @author Matthieu Casanova
+ */
+@Name("com.kpouer.themis.Creation")
+@Label("Component Creation")
+@Category("Themis")
+class CreationEvent extends jdk.jfr.Event {
+    @Label("Component Class")
+    Class<?> componentClass;
+    @Label("Factory Method")
+    @Description("The factory method creating the component, null if it is created by its constructor")
+    String factoryMethod;
+    @Label("Dependencies Duration")
+    @Description("The time spent resolving the dependencies")
+    @Timespan
+    long dependenciesDuration;
+}
@@ -17,6 +17,12 @@ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
 */
 package com.kpouer.themis;
 
-interface Creator<T> {
+/**
+ * Creates the instances of a component.
+ * Creators are usually built by the container itself, in AOT mode they are generated by themis-processor.
+ *
+ * @param <T> the type of the component
+ */
+public interface Creator<T> {
     T create();
 }
@@ -0,0 +1,121 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.*;
+
+/**
+ * The dependency graph of component definitions.
+ * The definitions are sorted in topological order, dependencies first, with a depth first search in O(V+E).
+ *
+ * @author Matthieu Casanova
+ */
+final class DependencyGraph {
+    private final List<ComponentDefinition<?>> order;
+    /**
+     * The direct dependencies of the definitions.
+     */
+    private final Map<ComponentDefinition<?>, List<ComponentDefinition<?>>> dependencies;
+
+    private DependencyGraph(List<ComponentDefinition<?>> order,
+                            Map<ComponentDefinition<?>, List<ComponentDefinition<?>>> dependencies) {
+        this.order = order;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Build the graph of the given definitions and of their transitive dependencies.
+     *
+     * @param roots the definitions
+     * @return the dependency graph
+     * @throws ComponentIocException if a dependency cannot be resolved or if there is a circular dependency
+     */
+    static DependencyGraph of(Collection<? extends ComponentDefinition<?>> roots) throws ComponentIocException {
+        var order = new ArrayList<ComponentDefinition<?>>();
+        var dependencies = new IdentityHashMap<ComponentDefinition<?>, List<ComponentDefinition<?>>>();
+        var done = Collections.newSetFromMap(new IdentityHashMap<ComponentDefinition<?>, Boolean>());
+        var visiting = new IdentityHashMap<ComponentDefinition<?>, Integer>();
+        var path = new ArrayList<ComponentDefinition<?>>();
+        var iterators = new ArrayDeque<Iterator<ComponentDefinition<?>>>();
+        for (var root : roots) {
+            if (done.contains(root)) {
+                continue;
+            }
+            visiting.put(root, 0);
+            path.add(root);
+            iterators.push(getDependencies(dependencies, root));
+            while (!iterators.isEmpty()) {
+                var iterator = iterators.peek();
+                if (iterator.hasNext()) {
+                    var dependency = iterator.next();
+                    var position = visiting.get(dependency);
+                    if (position != null) {
+                        throw new ComponentIocException("Circular dependency " + getCycle(path, position));
+                    }
+                    if (!done.contains(dependency)) {
+                        visiting.put(dependency, path.size());
+                        path.add(dependency);
+                        iterators.push(getDependencies(dependencies, dependency));
+                    }
+                } else {
+                    iterators.pop();
+                    var definition = path.remove(path.size() - 1);
+                    visiting.remove(definition);
+                    done.add(definition);
+                    order.add(definition);
+                }
+            }
+        }
+        return new DependencyGraph(order, dependencies);
+    }
+
+    private static Iterator<ComponentDefinition<?>> getDependencies(Map<ComponentDefinition<?>, List<ComponentDefinition<?>>> dependencies,
+                                                                     ComponentDefinition<?> definition) {
+        var definitionDependencies = definition.getDependencies();
+        dependencies.put(definition, definitionDependencies);
+        return definitionDependencies.iterator();
+    }
+
+    private static String getCycle(List<ComponentDefinition<?>> path, int start) {
+        var names = new StringJoiner(" -> ");
+        for (var i = start; i < path.size(); i++) {
+            names.add(path.get(i).getName());
+        }
+        names.add(path.get(start).getName());
+        return names.toString();
+    }
+
+    /**
+     * Returns the definitions in topological order, a definition always comes after its dependencies.
+     *
+     * @return the definitions
+     */
+    List<ComponentDefinition<?>> getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the direct dependencies of a definition of the graph.
+     *
+     * @param definition the definition
+     * @return the dependencies
+     */
+    List<ComponentDefinition<?>> getDependencies(ComponentDefinition<?> definition) {
+        return dependencies.getOrDefault(definition, List.of());
+    }
+}
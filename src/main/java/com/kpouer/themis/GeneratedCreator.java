@@ -0,0 +1,84 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.List;
+
+/**
+ * The base class of the creators generated by themis-processor in AOT mode.
+ * A generated creator declares the components it needs as {@link Dependency dependencies}, they are resolved once in an
+ * {@link InjectionPlan}, so the container knows the dependencies of the component, to order the startup and the
+ * shutdown, and a creation doesn't search the components again.
+ *
+ * @param <T> the type of the component
+ * @author Matthieu Casanova
+ */
+public abstract class GeneratedCreator<T> extends AbstractCreator<T> {
+    private final Dependency[] dependencies;
+    private volatile InjectionPlan plan;
+
+    /**
+     * Create a generated creator.
+     *
+     * @param themis       the container
+     * @param dependencies the dependencies, in the order of the arguments returned by {@link #getArgs()}
+     */
+    protected GeneratedCreator(Themis themis, Dependency... dependencies) {
+        super((ThemisImpl) themis);
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Returns the instances of the dependencies.
+     *
+     * @return the instances, in the order of the dependencies
+     * @throws ComponentIocException if a dependency cannot be resolved or created
+     */
+    protected final Object[] getArgs() throws ComponentIocException {
+        return getPlan().getArgs();
+    }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        return getPlan().getDependencies();
+    }
+
+    private InjectionPlan getPlan() {
+        var injectionPlan = plan;
+        var version = themis.getRegistryVersion();
+        if (injectionPlan == null || injectionPlan.getVersion() != version) {
+            var definitions = new ComponentDefinition<?>[dependencies.length];
+            for (var i = 0; i < dependencies.length; i++) {
+                definitions[i] = themis.getDependency(dependencies[i].type(), dependencies[i].qualifier());
+            }
+            // the generated code calls the constructor or the factory method itself
+            injectionPlan = new InjectionPlan(null, definitions, version);
+            plan = injectionPlan;
+        }
+        return injectionPlan;
+    }
+
+    /**
+     * A component needed by a generated creator.
+     *
+     * @param type      the type of the component
+     * @param qualifier the name of the component if the parameter is qualified, null otherwise
+     */
+    public record Dependency(Class<?> type, String qualifier) {
+    }
+}
@@ -0,0 +1,118 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The immutable injection plan of a creator.
+ * It is resolved once and contains the method handle of the constructor or factory method and the definition
+ * of the component injected for each argument, so creating a component only fetches the arguments and
+ * calls the handle. The plan of a {@link GeneratedCreator} has no handle, the generated code makes the call.
+ * The plan is resolved again if the registrations of the container changed since its {@link #getVersion() version}.
+ *
+ * @author Matthieu Casanova
+ */
+final class InjectionPlan {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final MethodHandle handle;
+    private final ComponentDefinition<?>[] dependencies;
+    private final long version;
+
+    InjectionPlan(MethodHandle handle, ComponentDefinition<?>[] dependencies, long version) {
+        this.handle = handle;
+        this.dependencies = dependencies;
+        this.version = version;
+    }
+
+    MethodHandle getHandle() {
+        return handle;
+    }
+
+    /**
+     * Returns the registry version of the container when the dependencies were resolved.
+     *
+     * @return the version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    List<ComponentDefinition<?>> getDependencies() {
+        return List.of(dependencies);
+    }
+
+    /**
+     * Returns the instances of the dependencies.
+     *
+     * @return the arguments of the constructor or factory method
+     */
+    Object[] getArgs() {
+        if (dependencies.length == 0) {
+            return NO_ARGS;
+        }
+        var args = new Object[dependencies.length];
+        for (var i = 0; i < dependencies.length; i++) {
+            args[i] = dependencies[i].getInstance();
+        }
+        return args;
+    }
+
+    /**
+     * Returns the instances of the dependencies, the time spent is recorded in the event if it is enabled.
+     *
+     * @param event the creation event
+     * @return the arguments of the constructor or factory method
+     */
+    Object[] getArgs(CreationEvent event) {
+        if (!event.isEnabled()) {
+            return getArgs();
+        }
+        var start = System.nanoTime();
+        var args = getArgs();
+        event.dependenciesDuration = System.nanoTime() - start;
+        return args;
+    }
+
+    /**
+     * Returns the instances of the dependencies without blocking the caller.
+     *
+     * @param executor the executor creating the dependencies
+     * @return the future arguments of the constructor or factory method
+     */
+    CompletableFuture<Object[]> getArgsAsync(Executor executor) {
+        if (dependencies.length == 0) {
+            return CompletableFuture.completedFuture(NO_ARGS);
+        }
+        var futures = new CompletableFuture<?>[dependencies.length];
+        for (var i = 0; i < dependencies.length; i++) {
+            futures[i] = dependencies[i].getInstanceAsync(executor);
+        }
+        return CompletableFuture.allOf(futures).thenApply(ignored -> {
+            var args = new Object[futures.length];
+            for (var i = 0; i < futures.length; i++) {
+                args[i] = futures[i].join();
+            }
+            return args;
+        });
+    }
+}
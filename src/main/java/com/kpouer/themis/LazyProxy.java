@@ -0,0 +1,92 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The proxy injected in a {@link com.kpouer.themis.annotation.Lazy} parameter.
+ * The component is resolved on the first call, then the calls are delegated to it through a {@link MethodHandle}
+ * cached per method.
+ *
+ * @author Matthieu Casanova
+ */
+final class LazyProxy implements InvocationHandler {
+    /**
+     * The type of the cached handles: (target, arguments) -> result.
+     */
+    private static final MethodType INVOKER = MethodType.methodType(Object.class, Object.class, Object[].class);
+    /**
+     * The handles of the methods, by declaring class so that they do not retain the class loaders.
+     */
+    private static final ClassValue<Map<Method, MethodHandle>> HANDLES = new ClassValue<>() {
+        @Override
+        protected Map<Method, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Provider<?> provider;
+    private volatile Object target;
+
+    private LazyProxy(Provider<?> provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Create a lazy proxy.
+     *
+     * @param type     the interface implemented by the proxy
+     * @param provider the provider of the component
+     * @return the proxy
+     */
+    static <T> T create(Class<T> type, Provider<?> provider) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new LazyProxy(provider)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        var current = target;
+        if (current == null) {
+            current = provider.get();
+            target = current;
+        }
+        // unlike Method.invoke the handle throws the exception of the component itself
+        return HANDLES.get(method.getDeclaringClass())
+                      .computeIfAbsent(method, LazyProxy::getHandle)
+                      .invokeExact(current, args);
+    }
+
+    private static MethodHandle getHandle(Method method) {
+        try {
+            var handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            return handle.asType(handle.type().generic())
+                         .asSpreader(Object[].class, method.getParameterCount())
+                         .asType(INVOKER);
+        } catch (IllegalAccessException e) {
+            throw new ComponentIocException("Unable to call " + method + " on a lazy component", e);
+        }
+    }
+}
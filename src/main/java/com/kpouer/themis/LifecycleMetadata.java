@@ -0,0 +1,182 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.annotation.PoolReset;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The lifecycle methods of a component class.
+ * The public methods annotated with {@link PostConstruct}, {@link PreDestroy} and {@link PoolReset} are looked up
+ * once per class and kept as method handles, so creating a prototype doesn't scan the methods of its class again.
+ *
+ * @author Matthieu Casanova
+ */
+final class LifecycleMetadata {
+    private static final MethodType LIFECYCLE_TYPE = MethodType.methodType(void.class, Object.class);
+    private static final ClassValue<LifecycleMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected LifecycleMetadata computeValue(Class<?> type) {
+            return new LifecycleMetadata(type);
+        }
+    };
+
+    private final Class<?> clazz;
+    private final LifecycleMethod[] postConstructMethods;
+    private final LifecycleMethod[] preDestroyMethods;
+    private final LifecycleMethod[] poolResetMethods;
+    /**
+     * True if the component is {@link AutoCloseable} and its close method is not already a pre destroy method.
+     */
+    private final boolean closeable;
+
+    private LifecycleMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+        var postConstruct = new ArrayList<LifecycleMethod>();
+        var preDestroy = new ArrayList<LifecycleMethod>();
+        var poolReset = new ArrayList<LifecycleMethod>();
+        var closeIsPreDestroy = false;
+        for (var method : clazz.getMethods()) {
+            if (method.getAnnotation(PostConstruct.class) != null) {
+                postConstruct.add(getLifecycleMethod(method));
+            }
+            if (method.getAnnotation(PreDestroy.class) != null) {
+                preDestroy.add(getLifecycleMethod(method));
+                closeIsPreDestroy |= "close".equals(method.getName()) && method.getParameterCount() == 0;
+            }
+            if (method.getAnnotation(PoolReset.class) != null) {
+                poolReset.add(getLifecycleMethod(method));
+            }
+        }
+        postConstructMethods = postConstruct.toArray(new LifecycleMethod[0]);
+        preDestroyMethods = preDestroy.toArray(new LifecycleMethod[0]);
+        poolResetMethods = poolReset.toArray(new LifecycleMethod[0]);
+        closeable = AutoCloseable.class.isAssignableFrom(clazz) && !closeIsPreDestroy;
+    }
+
+    /**
+     * Returns the lifecycle metadata of a class.
+     *
+     * @param clazz the component class
+     * @return the metadata
+     * @throws ComponentIocException if a lifecycle method cannot be accessed
+     */
+    static LifecycleMetadata of(Class<?> clazz) throws ComponentIocException {
+        return METADATA.get(clazz);
+    }
+
+    private LifecycleMethod getLifecycleMethod(Method method) {
+        try {
+            var handle = ComponentLookup.of(clazz).unreflect(method).asType(LIFECYCLE_TYPE);
+            return new LifecycleMethod(method.getName(), handle);
+        } catch (IllegalAccessException e) {
+            throw new ComponentIocException("Method " + method.getName() + " of " + clazz.getName() + " is not accessible, it should be public", e);
+        }
+    }
+
+    /**
+     * Returns true if the component has methods to call once it is created.
+     */
+    boolean hasPostConstruct() {
+        return postConstructMethods.length != 0;
+    }
+
+    /**
+     * Call the post construct methods of a component.
+     *
+     * @param component the component
+     * @throws ComponentIocException if a method fails
+     */
+    void invokePostConstruct(Object component) throws ComponentIocException {
+        invoke(postConstructMethods, component);
+    }
+
+    /**
+     * Call the pre destroy methods of a component, then close it if it is {@link AutoCloseable}.
+     *
+     * @param component the component
+     * @throws ComponentIocException if a method fails
+     */
+    void invokePreDestroy(Object component) throws ComponentIocException {
+        invoke(preDestroyMethods, component);
+        if (closeable) {
+            try {
+                ((AutoCloseable) component).close();
+            } catch (Exception e) {
+                throw new ComponentIocException("Unable to close " + clazz.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Call the pool reset methods of a component.
+     *
+     * @param component the component
+     * @throws ComponentIocException if a method fails
+     */
+    void invokePoolReset(Object component) throws ComponentIocException {
+        invoke(poolResetMethods, component);
+    }
+
+    /**
+     * Destroy the instances of a scope in the reverse order of their creation.
+     *
+     * @param instances the instances in creation order
+     * @throws ComponentIocException if an instance cannot be destroyed, the others are destroyed
+     */
+    static void destroy(List<Object> instances) throws ComponentIocException {
+        ComponentIocException exception = null;
+        for (var i = instances.size() - 1; i >= 0; i--) {
+            var instance = instances.get(i);
+            try {
+                of(instance.getClass()).invokePreDestroy(instance);
+            } catch (ComponentIocException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void invoke(LifecycleMethod[] methods, Object component) {
+        for (var method : methods) {
+            try {
+                method.handle().invokeExact(component);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ComponentIocException("Unable to call " + method.name() + " of " + clazz.getName(), (Exception) e);
+            }
+        }
+    }
+
+    private record LifecycleMethod(String name, MethodHandle handle) {
+    }
+}
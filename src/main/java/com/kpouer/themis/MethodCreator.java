@@ -17,19 +17,28 @@ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
 */
 package com.kpouer.themis;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  *  Component creator.
- *  It will create the component using it's constructor.
+ *  It will create the component using a factory method.
+ *  The method and its dependencies are resolved once in an {@link InjectionPlan} reused for every creation, the
+ *  dependencies are resolved again if the registrations of the container changed.
  * @param <T>
  */
 class MethodCreator<T> extends AbstractCreator<T> {
-    private final ComponentDefinition<T> componentDefinition;
+    private static final MethodType METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final ComponentDefinition<?> componentDefinition;
     private final Method method;
+    private volatile InjectionPlan plan;
 
-    MethodCreator(ThemisImpl themis, ComponentDefinition<T> componentDefinition, Method method) {
+    MethodCreator(ThemisImpl themis, ComponentDefinition<?> componentDefinition, Method method) {
         super(themis);
         this.componentDefinition = componentDefinition;
         this.method = method;
@@ -37,19 +46,60 @@ class MethodCreator<T> extends AbstractCreator<T> {
 
     @Override
     public T create() {
-        var parameters = method.getParameters();
+        var event = new CreationEvent();
+        event.begin();
+        var injectionPlan = getPlan();
         try {
-            T instance = componentDefinition.getInstance();
-            T component;
-            if (parameters.length == 0) {
-                component = (T) method.invoke(instance);
-            } else {
-                component = (T) method.invoke(instance, themis.getArgs(parameters));
-            }
+            Object instance = componentDefinition.getInstance();
+            T component = (T) injectionPlan.getHandle().invokeExact(instance, injectionPlan.getArgs(event));
             invokePostConstruct(component);
+            if (event.shouldCommit()) {
+                event.componentClass = method.getReturnType();
+                event.factoryMethod = method.getDeclaringClass().getName() + '.' + method.getName();
+                event.commit();
+            }
             return component;
-        } catch (IllegalAccessException | InvocationTargetException e) {
+        } catch (ComponentIocException e) {
+            throw e;
+        } catch (Throwable e) {
             throw new ComponentIocException(e);
         }
     }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        var dependencies = new ArrayList<ComponentDefinition<?>>();
+        dependencies.add(componentDefinition);
+        dependencies.addAll(getPlan().getDependencies());
+        return dependencies;
+    }
+
+    InjectionPlan getPlan() {
+        var injectionPlan = plan;
+        var version = themis.getRegistryVersion();
+        if (injectionPlan == null || injectionPlan.getVersion() != version) {
+            var parameters = method.getParameters();
+            var dependencies = themis.getDependencies(parameters);
+            if (injectionPlan == null) {
+                try {
+                    var handle = ComponentLookup.of(method.getDeclaringClass())
+                                              .unreflect(method)
+                                              .asSpreader(Object[].class, parameters.length);
+                    if (Modifier.isStatic(method.getModifiers())) {
+                        // the instance is ignored as with Method.invoke()
+                        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                    }
+                    handle = handle.asType(METHOD_TYPE);
+                    injectionPlan = new InjectionPlan(handle, dependencies, version);
+                } catch (IllegalAccessException e) {
+                    throw new ComponentIocException(e);
+                }
+            } else {
+                // the registrations changed, only the dependencies are resolved again
+                injectionPlan = new InjectionPlan(injectionPlan.getHandle(), dependencies, version);
+            }
+            plan = injectionPlan;
+        }
+        return injectionPlan;
+    }
 }
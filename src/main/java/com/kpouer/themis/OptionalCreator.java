@@ -0,0 +1,46 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Creates the {@link Optional} injected for an existing component.
+ *
+ * @param <T> the type of the component
+ * @author Matthieu Casanova
+ */
+class OptionalCreator<T> extends AbstractCreator<Optional<T>> {
+    private final ComponentDefinition<T> definition;
+
+    OptionalCreator(ThemisImpl themis, ComponentDefinition<T> definition) {
+        super(themis);
+        this.definition = definition;
+    }
+
+    @Override
+    public Optional<T> create() {
+        return Optional.of(definition.getInstance());
+    }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        return List.of(definition);
+    }
+}
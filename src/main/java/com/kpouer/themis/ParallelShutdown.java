@@ -0,0 +1,180 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Destroys the singletons created by the container in the reverse order of their dependencies.
+ * A singleton is destroyed once all the singletons depending on it are destroyed, so independent branches are
+ * destroyed at the same time. When the dependencies of a singleton are unknown (supplier) it is destroyed
+ * before all the singletons created before it. A component referenced through a {@link Provider}, a
+ * {@link java.util.function.Supplier} or a lazy proxy is destroyed after the singletons holding the reference, even if
+ * it was created after them.
+ * All the failures are collected in a single exception, a failure doesn't prevent the other singletons from being
+ * destroyed.
+ *
+ * @author Matthieu Casanova
+ */
+final class ParallelShutdown {
+    private ParallelShutdown() {
+    }
+
+    /**
+     * Destroy the singletons and wait for them.
+     *
+     * @param definitions the component definitions, only the singletons created by the container are destroyed
+     * @param executor    the executor, or null to destroy the singletons in the current thread
+     * @throws ComponentIocException if at least one singleton cannot be destroyed
+     */
+    static void stop(Collection<ComponentDefinition<?>> definitions, Executor executor) throws ComponentIocException {
+        List<ComponentDefinition<?>> singletons = definitions.stream()
+                                                             .filter(definition -> definition.getCreationIndex() != 0)
+                                                             .sorted(Comparator.comparingLong(ComponentDefinition::getCreationIndex))
+                                                             .toList();
+        var dependents = getDependents(singletons);
+        // the closest singleton created later whose dependencies are unknown
+        ComponentDefinition<?> barrier = null;
+        for (var i = singletons.size() - 1; i >= 0; i--) {
+            var definition = singletons.get(i);
+            if (barrier != null) {
+                dependents.computeIfAbsent(definition, key -> new ArrayList<>()).add(barrier);
+            }
+            if (definition.getCreationDependencies() == null) {
+                barrier = definition;
+            }
+        }
+        var futures = new IdentityHashMap<ComponentDefinition<?>, CompletableFuture<Void>>();
+        Queue<ComponentFailure> failures = new ConcurrentLinkedQueue<>();
+        Executor destroyExecutor = executor == null ? Runnable::run : executor;
+        for (var i = singletons.size() - 1; i >= 0; i--) {
+            schedule(singletons.get(i), dependents, futures, failures, destroyExecutor);
+        }
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        if (!failures.isEmpty()) {
+            throw ComponentFailure.getReport("Unable to destroy " + failures.size() + " of " + singletons.size() + " singletons", failures);
+        }
+    }
+
+    /**
+     * Schedule the destruction of a singleton after its dependents, the dependents are scheduled first.
+     * Without references the dependents are created later than the singleton, but a component referenced through a
+     * provider can be created after the singleton holding the reference. If the references close a cycle, the
+     * dependent closing it is not waited for.
+     */
+    private static void schedule(ComponentDefinition<?> root,
+                                 Map<ComponentDefinition<?>, List<ComponentDefinition<?>>> dependents,
+                                 Map<ComponentDefinition<?>, CompletableFuture<Void>> futures,
+                                 Queue<ComponentFailure> failures,
+                                 Executor executor) {
+        if (futures.containsKey(root)) {
+            return;
+        }
+        var visiting = Collections.newSetFromMap(new IdentityHashMap<ComponentDefinition<?>, Boolean>());
+        Deque<ComponentDefinition<?>> stack = new ArrayDeque<>();
+        Deque<Iterator<ComponentDefinition<?>>> iterators = new ArrayDeque<>();
+        visiting.add(root);
+        stack.push(root);
+        iterators.push(dependents.getOrDefault(root, List.of()).iterator());
+        while (!stack.isEmpty()) {
+            var iterator = iterators.peek();
+            if (iterator.hasNext()) {
+                var dependent = iterator.next();
+                if (!futures.containsKey(dependent) && visiting.add(dependent)) {
+                    stack.push(dependent);
+                    iterators.push(dependents.getOrDefault(dependent, List.of()).iterator());
+                }
+                continue;
+            }
+            var definition = stack.pop();
+            iterators.pop();
+            var waitFor = new ArrayList<CompletableFuture<Void>>();
+            for (var dependent : dependents.getOrDefault(definition, List.of())) {
+                var future = futures.get(dependent);
+                if (future != null) {
+                    waitFor.add(future);
+                }
+            }
+            var future = CompletableFuture.allOf(waitFor.toArray(new CompletableFuture<?>[0]))
+                                          .thenRunAsync(() -> destroy(definition, failures), executor);
+            futures.put(definition, future);
+        }
+    }
+
+    /**
+     * Returns the singletons depending on each singleton.
+     * The prototypes are not destroyed, but a singleton depending on a prototype depends on the singletons
+     * the prototype needs. A singleton holding a reference depends on the referenced component.
+     */
+    private static Map<ComponentDefinition<?>, List<ComponentDefinition<?>>> getDependents(List<ComponentDefinition<?>> singletons) {
+        var created = Collections.newSetFromMap(new IdentityHashMap<ComponentDefinition<?>, Boolean>());
+        created.addAll(singletons);
+        var dependents = new IdentityHashMap<ComponentDefinition<?>, List<ComponentDefinition<?>>>();
+        for (var definition : singletons) {
+            var dependencies = definition.getCreationDependencies();
+            if (dependencies != null) {
+                var visited = Collections.newSetFromMap(new IdentityHashMap<ComponentDefinition<?>, Boolean>());
+                addDependent(definition, dependencies, created, visited, dependents);
+            }
+        }
+        return dependents;
+    }
+
+    private static void addDependent(ComponentDefinition<?> definition,
+                                     List<ComponentDefinition<?>> dependencies,
+                                     Set<ComponentDefinition<?>> created,
+                                     Set<ComponentDefinition<?>> visited,
+                                     Map<ComponentDefinition<?>, List<ComponentDefinition<?>>> dependents) {
+        for (var dependency : dependencies) {
+            if (!visited.add(dependency)) {
+                continue;
+            }
+            var reference = dependency.getReference();
+            if (reference != null) {
+                addDependent(definition, List.of(reference.getResolvedDefinition()), created, visited, dependents);
+            } else if (created.contains(dependency)) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(definition);
+            } else if (!dependency.isSingleton()) {
+                addDependent(definition, dependency.getDependencies(), created, visited, dependents);
+            }
+        }
+    }
+
+    private static void destroy(ComponentDefinition<?> definition, Queue<ComponentFailure> failures) {
+        try {
+            var instance = definition.getCreatedInstance();
+            LifecycleMetadata.of(instance.getClass()).invokePreDestroy(instance);
+        } catch (RuntimeException | Error e) {
+            failures.add(new ComponentFailure(definition, e));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+/**
+ * Creates the components of a dependency graph in parallel.
+ * A component is submitted to the executor once all its dependencies are created (including their
+ * post construct methods) so independent subtrees are created at the same time. A component created by an
+ * asynchronous factory method doesn't use a thread of the executor while its future is not completed.
+ * All the creation failures are collected in a single exception.
+ *
+ * @author Matthieu Casanova
+ */
+final class ParallelStartup {
+    private ParallelStartup() {
+    }
+
+    /**
+     * Create the components and wait for them.
+     *
+     * @param graph    the dependency graph
+     * @param toCreate the filter of the definitions to create, the others are only waited for
+     * @param executor the executor
+     * @throws ComponentIocException if at least one component cannot be created
+     */
+    static void start(DependencyGraph graph,
+                      Predicate<ComponentDefinition<?>> toCreate,
+                      Executor executor) throws ComponentIocException {
+        var futures = new IdentityHashMap<ComponentDefinition<?>, CompletableFuture<Void>>();
+        Queue<ComponentFailure> failures = new ConcurrentLinkedQueue<>();
+        var created = 0;
+        for (var definition : graph.getOrder()) {
+            var dependencies = graph.getDependencies(definition);
+            var dependencyFutures = new CompletableFuture<?>[dependencies.size()];
+            for (var i = 0; i < dependencyFutures.length; i++) {
+                dependencyFutures[i] = futures.get(dependencies.get(i));
+            }
+            var future = CompletableFuture.allOf(dependencyFutures);
+            if (toCreate.test(definition)) {
+                created++;
+                future = future.thenCompose(ignored -> create(definition, failures, executor));
+            }
+            futures.put(definition, future);
+        }
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw ComponentFailure.getReport("Unable to create " + failures.size() + " of " + created +
+                                             " eager components, their dependent components were not created", failures);
+        }
+    }
+
+    private static CompletableFuture<Void> create(ComponentDefinition<?> definition, Queue<ComponentFailure> failures, Executor executor) {
+        return definition.getInstanceAsync(executor)
+                         .whenComplete((instance, throwable) -> {
+                             if (throwable != null) {
+                                 failures.add(new ComponentFailure(definition, ComponentDefinition.unwrap(throwable)));
+                             }
+                         })
+                         .thenApply(instance -> null);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+/**
+ * An instance borrowed from a {@link ComponentPool}, closing the handle returns the instance to the pool.
+ *
+ * @param <T> the type of the component
+ * @author Matthieu Casanova
+ */
+public final class PooledComponent<T> implements AutoCloseable {
+    private final ComponentPool<T> pool;
+    private T instance;
+
+    PooledComponent(ComponentPool<T> pool, T instance) {
+        this.pool = pool;
+        this.instance = instance;
+    }
+
+    /**
+     * Returns the borrowed instance.
+     *
+     * @return the instance
+     * @throws ComponentIocException if the instance was returned to the pool
+     */
+    public T get() throws ComponentIocException {
+        if (instance == null) {
+            throw new ComponentIocException("The instance was returned to the pool");
+        }
+        return instance;
+    }
+
+    /**
+     * Return the instance to the pool, closing the handle again has no effect.
+     *
+     * @throws ComponentIocException if the instance cannot be reset
+     */
+    @Override
+    public void close() throws ComponentIocException {
+        var borrowed = instance;
+        if (borrowed != null) {
+            instance = null;
+            pool.release(borrowed);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.function.Supplier;
+
+/**
+ * Provides a component when it is needed.
+ * A <code>Provider&lt;T&gt;</code> or a <code>Supplier&lt;T&gt;</code> parameter receives a provider of the
+ * component of type T instead of the component itself, so the component is only created when {@link #get()} is
+ * called. A prototype is created on each call.
+ *
+ * @param <T> the type of the component
+ * @author Matthieu Casanova
+ */
+@FunctionalInterface
+public interface Provider<T> extends Supplier<T> {
+    /**
+     * Returns the component.
+     *
+     * @return the component
+     * @throws ComponentIocException if the component can't be created
+     */
+    @Override
+    T get() throws ComponentIocException;
+}
@@ -0,0 +1,115 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * The request scope, the components are created once per request and shared by everything called during the request.
+ * A request is the execution of {@link #run(Runnable)} or {@link #call(Callable)}, the instances are bound to the
+ * current thread only during that call, then they are destroyed and the thread is left as it was, so nothing leaks
+ * in pooled threads. Requests can be nested, the inner request has its own instances.
+ *
+ * @author Matthieu Casanova
+ */
+public class RequestScope implements Scope {
+    public static final String NAME = "request";
+
+    /**
+     * The instances of the current request
+     * key: the creator of the component
+     * value: the instance.
+     */
+    private static final ThreadLocal<Map<Creator<?>, Object>> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The scope is registered by the container.
+     */
+    RequestScope() {
+    }
+
+    /**
+     * Run a request.
+     *
+     * @param request the request
+     * @throws ComponentIocException if a request component cannot be destroyed
+     */
+    public static void run(Runnable request) throws ComponentIocException {
+        var outer = CURRENT.get();
+        var instances = new LinkedHashMap<Creator<?>, Object>();
+        CURRENT.set(instances);
+        try {
+            request.run();
+        } finally {
+            end(outer, instances);
+        }
+    }
+
+    /**
+     * Call a request.
+     *
+     * @param request the request
+     * @return the result of the request
+     * @param <V> the type of the result
+     * @throws Exception the exception thrown by the request
+     */
+    public static <V> V call(Callable<V> request) throws Exception {
+        var outer = CURRENT.get();
+        var instances = new LinkedHashMap<Creator<?>, Object>();
+        CURRENT.set(instances);
+        try {
+            return request.call();
+        } finally {
+            end(outer, instances);
+        }
+    }
+
+    /**
+     * Returns true if a request is running in the current thread.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    private static void end(Map<Creator<?>, Object> outer, Map<Creator<?>, Object> instances) {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+        LifecycleMetadata.destroy(new ArrayList<>(instances.values()));
+    }
+
+    @Override
+    public <T> T get(String name, Creator<T> creator) throws ComponentIocException {
+        var instances = CURRENT.get();
+        if (instances == null) {
+            throw new ComponentIocException("No active request for component " + name +
+                                            ", it must be used in RequestScope.run() or RequestScope.call()");
+        }
+        var instance = (T) instances.get(creator);
+        if (instance == null) {
+            instance = creator.create();
+            instances.put(creator, instance);
+        }
+        return instance;
+    }
+}
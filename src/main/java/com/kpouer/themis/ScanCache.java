@@ -0,0 +1,146 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The persistent cache of the classpath scan.
+ * For each scanned root it stores the component classes that were found with the fingerprint of the root at that
+ * time. When the fingerprint did not change, the root does not have to be scanned again.
+ * The cache is only an optimization, if the file cannot be read it is ignored and rebuilt, if it cannot be written the
+ * failure is logged.
+ *
+ * @author Matthieu Casanova
+ */
+final class ScanCache {
+    private static final System.Logger LOGGER = System.getLogger(ScanCache.class.getName());
+    private static final String HEADER = "# Themis scan cache, do not edit";
+    private static final String ROOT = "R";
+    private static final String CLASS = "C";
+
+    private final Path file;
+    /**
+     * The entries read from the file.
+     * key: the root key
+     * value: the cached entry
+     */
+    private final Map<String, Entry> entries;
+    /**
+     * The entries used by the current scan, only those are saved.
+     */
+    private final Map<String, Entry> usedEntries = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    private ScanCache(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /**
+     * Load the cache.
+     *
+     * @param file the cache file
+     * @return the cache, empty if the file does not exist or cannot be read
+     */
+    static ScanCache load(Path file) {
+        var entries = new ConcurrentHashMap<String, Entry>();
+        if (Files.isRegularFile(file)) {
+            try {
+                Entry entry = null;
+                for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    var fields = line.split("\t");
+                    if (fields.length == 3 && ROOT.equals(fields[0])) {
+                        entry = new Entry(fields[2], new ArrayList<>());
+                        entries.put(fields[1], entry);
+                    } else if (fields.length == 3 && CLASS.equals(fields[0]) && entry != null) {
+                        entry.classes().add(new ScannedClass(fields[1], Integer.parseInt(fields[2])));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // the cache is corrupted, everything will be scanned again
+                entries.clear();
+            }
+        }
+        return new ScanCache(file, entries);
+    }
+
+    /**
+     * Returns the classes of a root if its fingerprint did not change.
+     *
+     * @param key         the key of the root
+     * @param fingerprint the current fingerprint of the root
+     * @return the classes or null if the root has to be scanned
+     */
+    List<ScannedClass> get(String key, String fingerprint) {
+        var entry = entries.get(key);
+        if (entry == null || !entry.fingerprint().equals(fingerprint)) {
+            return null;
+        }
+        usedEntries.put(key, entry);
+        return entry.classes();
+    }
+
+    void put(String key, String fingerprint, List<ScannedClass> classes) {
+        usedEntries.put(key, new Entry(fingerprint, classes));
+        modified = true;
+    }
+
+    /**
+     * Save the cache if a root was scanned or if a root is not used anymore.
+     * If the cache cannot be written, on a read only file system for example, the failure is logged and the next
+     * start scans the packages again.
+     */
+    void save() {
+        if (!modified && usedEntries.size() == entries.size()) {
+            return;
+        }
+        var lines = new ArrayList<String>();
+        lines.add(HEADER);
+        usedEntries.forEach((key, entry) -> {
+            lines.add(ROOT + '\t' + key + '\t' + entry.fingerprint());
+            for (var scannedClass : entry.classes()) {
+                lines.add(CLASS + '\t' + scannedClass.className() + '\t' + scannedClass.flags());
+            }
+        });
+        try {
+            AtomicFiles.write(file, lines);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Unable to write scan cache " + file, e);
+        }
+    }
+
+    /**
+     * A class found by scanning.
+     *
+     * @param className the class name
+     * @param flags     the flags returned by {@link ComponentClassFilter#read(byte[])}
+     */
+    record ScannedClass(String className, int flags) {
+    }
+
+    private record Entry(String fingerprint, List<ScannedClass> classes) {
+    }
+}
@@ -0,0 +1,39 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+/**
+ * A scope of components, it decides when a component is created and how long its instance is shared.
+ * The scope of a component is set by {@link com.kpouer.themis.annotation.Component#scope()}, the {@link ThreadScope}
+ * and the {@link RequestScope} are always available and other scopes can be added to the {@link ThemisConfiguration}
+ * with {@code ThemisConfiguration.builder().scope(name, scope)}.
+ *
+ * @author Matthieu Casanova
+ */
+public interface Scope {
+    /**
+     * Returns the instance of the component in the current scope, it is created if needed.
+     *
+     * @param name    the name of the component
+     * @param creator the creator of the component, it also identifies the component
+     * @return the instance
+     * @param <T> the type of the component
+     * @throws ComponentIocException if the component can't be created or if the scope is not active
+     */
+    <T> T get(String name, Creator<T> creator) throws ComponentIocException;
+}
@@ -0,0 +1,141 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the first creation of each component of a container, when the profiler is enabled in the
+ * {@link ThemisConfiguration}.
+ * The creations in progress in a thread are stacked, the time spent creating a dependency or waiting for a singleton
+ * created by another thread is added to the dependency time of the component being created.
+ *
+ * @author Matthieu Casanova
+ */
+final class StartupProfiler {
+    private static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+
+    private final long origin = System.nanoTime();
+    private final Map<ComponentDefinition<?>, StartupReport.Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Start the creation of a component in the current thread.
+     *
+     * @return the frame of the creation
+     */
+    static Frame enter() {
+        var frame = new Frame(CURRENT.get(), System.nanoTime());
+        CURRENT.set(frame);
+        return frame;
+    }
+
+    /**
+     * End the creation of a component in the current thread, its duration is a dependency time of the component
+     * that needed it.
+     *
+     * @param frame the frame returned by {@link #enter()}
+     */
+    static void exit(Frame frame) {
+        frame.end = System.nanoTime();
+        var parent = frame.parent;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            parent.dependencies += frame.end - frame.start;
+            CURRENT.set(parent);
+        }
+    }
+
+    /**
+     * Add the time spent waiting for a singleton created by another thread to the component being created.
+     *
+     * @param nanos the waiting time
+     */
+    static void waited(long nanos) {
+        var frame = CURRENT.get();
+        if (frame != null) {
+            frame.dependencies += nanos;
+        }
+    }
+
+    /**
+     * Record the creation of a component, only its first creation is kept.
+     *
+     * @param definition the component definition
+     * @param frame      the ended frame of its creation
+     */
+    void record(ComponentDefinition<?> definition, Frame frame) {
+        if (entries.containsKey(definition)) {
+            return;
+        }
+        var dependencies = new ArrayList<String>();
+        addDependencies(definition.getDependencies(), dependencies, Collections.newSetFromMap(new IdentityHashMap<>()));
+        var duration = frame.end - frame.start;
+        entries.putIfAbsent(definition, new StartupReport.Entry(definition.getName(),
+                                                                definition.getClazz().getName(),
+                                                                Thread.currentThread().getName(),
+                                                                Duration.ofNanos(frame.start - origin),
+                                                                Duration.ofNanos(duration),
+                                                                Duration.ofNanos(Math.min(frame.dependencies, duration)),
+                                                                dependencies));
+    }
+
+    /**
+     * Add the names of the dependencies, the dependencies of the injected collections and optional components are
+     * the components they contain.
+     */
+    private static void addDependencies(List<ComponentDefinition<?>> definitions,
+                                        List<String> names,
+                                        Set<ComponentDefinition<?>> visited) {
+        for (var definition : definitions) {
+            if (visited.add(definition)) {
+                if (definition.getName() == null) {
+                    addDependencies(definition.getDependencies(), names, visited);
+                } else {
+                    names.add(definition.getName());
+                }
+            }
+        }
+    }
+
+    StartupReport getReport() {
+        return new StartupReport(new ArrayList<>(entries.values()));
+    }
+
+    static final class Frame {
+        private final Frame parent;
+        private final long start;
+        private long end;
+        /**
+         * The time spent in the dependencies.
+         */
+        private long dependencies;
+
+        private Frame(Frame parent, long start) {
+            this.parent = parent;
+            this.start = start;
+        }
+    }
+}
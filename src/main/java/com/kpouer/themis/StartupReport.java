@@ -0,0 +1,264 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The report of the startup profiler.
+ * It contains the first creation of each component and the critical path, the chain of dependencies whose own
+ * creation times are the longest. Making a component of the critical path faster or lazy shortens the startup, the
+ * other components are created in its shadow.
+ *
+ * @author Matthieu Casanova
+ */
+public final class StartupReport {
+    private final List<Entry> entries;
+    private final List<Entry> criticalPath;
+
+    StartupReport(List<Entry> entries) {
+        entries.sort(Comparator.comparing(Entry::start));
+        this.entries = Collections.unmodifiableList(entries);
+        criticalPath = Collections.unmodifiableList(computeCriticalPath(entries));
+    }
+
+    /**
+     * The creation of a component.
+     *
+     * @param name         the name of the component
+     * @param type         the class name of the component
+     * @param thread       the thread that created it
+     * @param start        the start of the creation since the container was created
+     * @param duration     the creation time, including the creation of its dependencies
+     * @param dependencies the time spent creating its dependencies or waiting for them
+     * @param dependencyNames the names of the components it depends on
+     */
+    public record Entry(String name,
+                        String type,
+                        String thread,
+                        Duration start,
+                        Duration duration,
+                        Duration dependencies,
+                        List<String> dependencyNames) {
+        /**
+         * Returns the creation time of the component itself.
+         */
+        public Duration own() {
+            return duration.minus(dependencies);
+        }
+    }
+
+    /**
+     * Returns the creations in start order.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the critical path, from the component depending on the others to the last dependency.
+     */
+    public List<Entry> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * Returns the sum of the own creation times of the critical path.
+     */
+    public Duration getCriticalPathDuration() {
+        var duration = Duration.ZERO;
+        for (var entry : criticalPath) {
+            duration = duration.plus(entry.own());
+        }
+        return duration;
+    }
+
+    /**
+     * Returns the components with the longest own creation times.
+     *
+     * @param count the maximum number of components
+     * @return the slowest components, the slowest first
+     */
+    public List<Entry> getSlowest(int count) {
+        return entries.stream()
+                      .sorted(Comparator.comparing(Entry::own).reversed())
+                      .limit(count)
+                      .toList();
+    }
+
+    private static List<Entry> computeCriticalPath(List<Entry> entries) {
+        var byName = new HashMap<String, Entry>();
+        for (var entry : entries) {
+            byName.put(entry.name(), entry);
+        }
+        var lengths = new HashMap<Entry, Long>();
+        var next = new HashMap<Entry, Entry>();
+        Entry first = null;
+        long longest = -1;
+        for (var entry : entries) {
+            var length = getLength(entry, byName, lengths, next);
+            if (length > longest) {
+                longest = length;
+                first = entry;
+            }
+        }
+        var path = new ArrayList<Entry>();
+        for (var entry = first; entry != null; entry = next.get(entry)) {
+            path.add(entry);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the longest sum of own creation times from an entry to one of its last dependencies.
+     */
+    private static long getLength(Entry entry, Map<String, Entry> byName, Map<Entry, Long> lengths, Map<Entry, Entry> next) {
+        var length = lengths.get(entry);
+        if (length != null) {
+            return length;
+        }
+        long longest = 0;
+        for (var dependencyName : entry.dependencyNames()) {
+            var dependency = byName.get(dependencyName);
+            if (dependency != null) {
+                var dependencyLength = getLength(dependency, byName, lengths, next);
+                if (dependencyLength > longest) {
+                    longest = dependencyLength;
+                    next.put(entry, dependency);
+                }
+            }
+        }
+        length = entry.own().toNanos() + longest;
+        lengths.put(entry, length);
+        return length;
+    }
+
+    /**
+     * Returns the report in JSON.
+     */
+    public String toJson() {
+        var json = new StringBuilder(256 + entries.size() * 256);
+        json.append("{\n  \"criticalPathNanos\": ").append(getCriticalPathDuration().toNanos()).append(",\n");
+        json.append("  \"criticalPath\": [");
+        for (var i = 0; i < criticalPath.size(); i++) {
+            json.append(i == 0 ? "" : ", ").append(quote(criticalPath.get(i).name()));
+        }
+        json.append("],\n  \"components\": [");
+        for (var i = 0; i < entries.size(); i++) {
+            var entry = entries.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"name\": ").append(quote(entry.name()))
+                .append(", \"type\": ").append(quote(entry.type()))
+                .append(", \"thread\": ").append(quote(entry.thread()))
+                .append(", \"startNanos\": ").append(entry.start().toNanos())
+                .append(", \"durationNanos\": ").append(entry.duration().toNanos())
+                .append(", \"ownNanos\": ").append(entry.own().toNanos())
+                .append(", \"dependenciesNanos\": ").append(entry.dependencies().toNanos())
+                .append(", \"dependencies\": [");
+            for (var j = 0; j < entry.dependencyNames().size(); j++) {
+                json.append(j == 0 ? "" : ", ").append(quote(entry.dependencyNames().get(j)));
+            }
+            json.append("]}");
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    private static String quote(String value) {
+        var quoted = new StringBuilder(value.length() + 2).append('"');
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < ' ') {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Returns the report as text: the critical path, the slowest components and the tree of the dependencies.
+     */
+    @Override
+    public String toString() {
+        var text = new StringBuilder(256 + entries.size() * 64);
+        text.append(entries.size()).append(" components created, critical path ")
+            .append(format(getCriticalPathDuration())).append('\n');
+        for (var i = 0; i < criticalPath.size(); i++) {
+            var entry = criticalPath.get(i);
+            text.append("  ".repeat(i + 1)).append(entry.name()).append(' ').append(format(entry.own())).append('\n');
+        }
+        text.append("Slowest components\n");
+        for (var entry : getSlowest(10)) {
+            text.append("  ").append(entry.name()).append(' ').append(format(entry.own()))
+                .append(" (total ").append(format(entry.duration())).append(")\n");
+        }
+        text.append("Dependencies\n");
+        var byName = new HashMap<String, Entry>();
+        var dependencies = new HashSet<String>();
+        for (var entry : entries) {
+            byName.put(entry.name(), entry);
+            dependencies.addAll(entry.dependencyNames());
+        }
+        var printed = new HashSet<Entry>();
+        for (var entry : entries) {
+            // the roots are the components no other component depends on
+            if (!dependencies.contains(entry.name())) {
+                appendTree(text, entry, byName, printed, 1);
+            }
+        }
+        return text.toString();
+    }
+
+    private static void appendTree(StringBuilder text, Entry entry, Map<String, Entry> byName, Set<Entry> printed, int depth) {
+        text.append("  ".repeat(depth)).append(entry.name()).append(' ').append(format(entry.duration()))
+            .append(" (own ").append(format(entry.own())).append(')');
+        if (!printed.add(entry)) {
+            text.append(" ...\n");
+            return;
+        }
+        text.append('\n');
+        for (var dependencyName : entry.dependencyNames()) {
+            var dependency = byName.get(dependencyName);
+            if (dependency != null) {
+                appendTree(text, dependency, byName, printed, depth + 1);
+            }
+        }
+    }
+
+    private static String format(Duration duration) {
+        return String.format(Locale.ROOT, "%.1f ms", duration.toNanos() / 1_000_000.0);
+    }
+}
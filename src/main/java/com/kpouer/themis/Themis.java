@@ -18,21 +18,199 @@ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
 package com.kpouer.themis;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
-public interface Themis {
+public interface Themis extends AutoCloseable {
     <T> T getComponentOfType(Class<T> requiredType) throws ComponentIocException;
 
     <T> T getComponentOfType(String name, Class<T> requiredType) throws ComponentIocException;
 
+    /**
+     * Return the component of the given type without blocking the caller.
+     * If the component is created by a factory method returning a {@link CompletableFuture}, it is completed with
+     * the result of that future, otherwise it is created by the asynchronous executor of the container.
+     *
+     * @param requiredType the type of the component
+     * @return the future component, completed exceptionally if no component can be found or if it can't be created
+     * @param <T> the type of the component
+     */
+    <T> CompletableFuture<T> getComponentOfTypeAsync(Class<T> requiredType);
+
+    /**
+     * Return the component with the given name without blocking the caller.
+     *
+     * @param name         the name of the component
+     * @param requiredType the type of the component
+     * @return the future component, completed exceptionally if no component can be found or if it can't be created
+     * @param <T> the type of the component
+     * @see #getComponentOfTypeAsync(Class)
+     */
+    <T> CompletableFuture<T> getComponentOfTypeAsync(String name, Class<T> requiredType);
+
+    /**
+     * Return a reference to the component of the given type.
+     * The component is searched once, getting it from the reference is then as fast as possible.
+     *
+     * @param requiredType the type of the component
+     * @return the reference to the component, the component is not created
+     * @param <T> the type of the component
+     * @throws ComponentIocException if there is no component or more than one component of that type
+     */
+    <T> ComponentRef<T> ref(Class<T> requiredType) throws ComponentIocException;
+
+    /**
+     * Return a reference to the component with the given name.
+     *
+     * @param name         the name of the component
+     * @param requiredType the type of the component
+     * @return the reference to the component, the component is not created
+     * @param <T> the type of the component
+     * @throws ComponentIocException if there is no component with that name or if it is not of the required type
+     * @see #ref(Class)
+     */
+    <T> ComponentRef<T> ref(String name, Class<T> requiredType) throws ComponentIocException;
+
+    /**
+     * Return the component with the given name if it exists and is of the required type,
+     * otherwise the component of the required type.
+     * It is the resolution applied to the parameters annotated with {@link com.kpouer.themis.annotation.Qualifier}.
+     *
+     * @param name         the name of the component
+     * @param requiredType the type of the component
+     * @return the component
+     * @param <T> the type of the component
+     * @throws ComponentIocException if no component can be found or if it can't be created
+     */
+    <T> T getQualifiedComponent(String name, Class<T> requiredType) throws ComponentIocException;
+
     /**
      * Return all the components of the given type.
      * Lazy components will be initialized.
      * Singleton components will be initialized only once.
+     * The map is unmodifiable and in registration order, while all the components are singletons the same map is
+     * returned until a component of that type is registered.
      *
      * @param requiredType the type of the components
-     * @return a map of the components
+     * @return a map of the components by name
      * @param <T> the type of the components
      * @throws ComponentIocException if a component can't be created
      */
     <T> Map<String, T> getComponentsOfType(Class<T> requiredType) throws ComponentIocException;
+
+    /**
+     * Return the pool of the {@link com.kpouer.themis.annotation.Pooled} component of the given type.
+     *
+     * @param requiredType the type of the component
+     * @return the pool
+     * @param <T> the type of the component
+     * @throws ComponentIocException if no pooled component can be found
+     */
+    <T> ComponentPool<T> getPool(Class<T> requiredType) throws ComponentIocException;
+
+    /**
+     * Return the pool of the {@link com.kpouer.themis.annotation.Pooled} component with the given name.
+     *
+     * @param name         the name of the component
+     * @param requiredType the type of the component
+     * @return the pool
+     * @param <T> the type of the component
+     * @throws ComponentIocException if no pooled component can be found
+     */
+    <T> ComponentPool<T> getPool(String name, Class<T> requiredType) throws ComponentIocException;
+
+    /**
+     * Register an instance as a singleton component.
+     * The components can be registered and unregistered while the container is used, the lookups are never blocked.
+     * The container doesn't destroy the registered instance.
+     *
+     * @param name     the name of the component
+     * @param instance the instance
+     * @param <T>      the type of the component
+     * @throws ComponentIocException if a component with the same name is already registered
+     */
+    <T> void registerComponent(String name, T instance) throws ComponentIocException;
+
+    /**
+     * Register a class annotated with {@link com.kpouer.themis.annotation.Component}, as if it was found in a scanned
+     * package.
+     *
+     * @param componentClass the class of the component
+     * @throws ComponentIocException if the class is not a component or if a component with the same name is already
+     *                               registered
+     */
+    void registerComponent(Class<?> componentClass) throws ComponentIocException;
+
+    /**
+     * Register a component created by a supplier when it is needed.
+     *
+     * @param name      the name of the component
+     * @param type      the type of the component
+     * @param supplier  the supplier creating the instances
+     * @param singleton true if the supplier is called once, false to call it each time the component is needed
+     * @param <T>       the type of the component
+     * @throws ComponentIocException if a component with the same name is already registered
+     */
+    <T> void registerComponent(String name, Class<T> type, Supplier<? extends T> supplier, boolean singleton) throws ComponentIocException;
+
+    /**
+     * Unregister a component of this container.
+     * If the component is a singleton created by the container it is destroyed, the components already depending on
+     * it keep their instance. The components created by its factory methods are unregistered as well.
+     *
+     * @param name the name of the component
+     * @return true if the component was registered
+     * @throws ComponentIocException if the container is closed or if the singleton cannot be destroyed, it is
+     *                               unregistered anyway
+     */
+    boolean unregisterComponent(String name) throws ComponentIocException;
+
+    /**
+     * Create a child container.
+     * The child uses the components of this container, it only contains the components it adds. A component of the
+     * child hides the component of the parent with the same name or of the same type. The components of the parent are
+     * created by the parent, they never depend on the components of the child.
+     *
+     * @return the child container, it must be closed before its parent
+     */
+    Themis createChild();
+
+    /**
+     * Create a child container with its own components.
+     * The packages of the configuration are scanned once for all the children with the same packages and filters,
+     * the executors and the metrics of the parent are used by the child.
+     *
+     * @param configuration the configuration of the child
+     * @return the child container, it must be closed before its parent
+     * @see #createChild()
+     */
+    Themis createChild(ThemisConfiguration configuration);
+
+    /**
+     * Return the metrics of the components.
+     *
+     * @return the metrics by component name, empty if the metrics are not enabled in the configuration
+     */
+    Map<String, ComponentMetrics> getMetrics();
+
+    /**
+     * Return the report of the startup profiler.
+     * It contains the first creation of each component created so far, with its own creation time and the time
+     * spent creating its dependencies, and the critical path of the startup.
+     *
+     * @return the report, empty if the profiler is not enabled in the configuration
+     */
+    StartupReport getStartupReport();
+
+    /**
+     * Close the container.
+     * The methods annotated with {@link jakarta.annotation.PreDestroy} of the singletons created by the container
+     * are called, and the {@link AutoCloseable} singletons are closed, a singleton being destroyed after the
+     * singletons depending on it. The idle instances of the pools are destroyed too.
+     * Closing the container again has no effect.
+     *
+     * @throws ComponentIocException if at least one singleton cannot be destroyed, all the others are destroyed
+     */
+    @Override
+    void close() throws ComponentIocException;
 }
@@ -0,0 +1,152 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+/**
+ * The configuration of a {@link ThemisImpl} container.
+ *
+ * @author Matthieu Casanova
+ */
+@Getter
+public class ThemisConfiguration {
+    /**
+     * The packages to scan for components, their subpackages are scanned too.
+     */
+    private final List<String> packageNames;
+    /**
+     * The filters of the class names to include, if there is none all the classes are included.
+     */
+    private final List<Predicate<String>> includes;
+    /**
+     * The filters of the class names to exclude.
+     */
+    private final List<Predicate<String>> excludes;
+    /**
+     * The executor creating the eager components in parallel, independent components are created at the same time.
+     * If null the eager components are created one at a time by the thread creating the container.
+     */
+    private final Executor startupExecutor;
+    /**
+     * The executor creating the components requested asynchronously, the common pool if null.
+     * The components created by a factory method returning a {@link java.util.concurrent.CompletionStage} are
+     * completed by the stage instead.
+     */
+    private final Executor asyncExecutor;
+    /**
+     * True to collect the {@link ComponentMetrics} of the components, when false they cost nothing.
+     */
+    private final boolean metricsEnabled;
+    /**
+     * True to record the creation of the components, see {@link Themis#getStartupReport()}.
+     */
+    private final boolean startupProfilerEnabled;
+    /**
+     * The custom scopes
+     * key: the scope name used in {@link com.kpouer.themis.annotation.Component#scope()}
+     * value: the scope.
+     */
+    private final Map<String, Scope> scopes;
+    /**
+     * The executor destroying the singletons in parallel when the container is closed, independent singletons are
+     * destroyed at the same time. If null they are destroyed one at a time by the thread closing the container.
+     */
+    private final Executor shutdownExecutor;
+    /**
+     * The file caching the result of the classpath scan between runs, the unchanged jars and directories are not
+     * scanned again. If null the packages are always scanned. It is not used if a component index was generated.
+     */
+    private final Path scanCache;
+    /**
+     * The file recording the components used by a run, the singletons used by the previous run are created at startup
+     * by the next one. If null the components are created according to their {@link
+     * com.kpouer.themis.annotation.Component#lazy()} attribute.
+     */
+    private final Path usageProfile;
+
+    @Builder
+    private ThemisConfiguration(@Singular List<String> packageNames,
+                                @Singular List<Predicate<String>> includes,
+                                @Singular List<Predicate<String>> excludes,
+                                Executor startupExecutor,
+                                Executor asyncExecutor,
+                                boolean metricsEnabled,
+                                boolean startupProfilerEnabled,
+                                Map<String, Scope> scopes,
+                                Executor shutdownExecutor,
+                                Path scanCache,
+                                Path usageProfile) {
+        this.packageNames = packageNames;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.startupExecutor = startupExecutor;
+        this.asyncExecutor = asyncExecutor;
+        this.metricsEnabled = metricsEnabled;
+        this.startupProfilerEnabled = startupProfilerEnabled;
+        this.scopes = Collections.unmodifiableMap(new LinkedHashMap<>(scopes));
+        this.shutdownExecutor = shutdownExecutor;
+        this.scanCache = scanCache;
+        this.usageProfile = usageProfile;
+    }
+
+    /**
+     * Tells if a class has to be considered by the container.
+     *
+     * @param className the class name
+     * @return true if the class is included and not excluded
+     */
+    boolean accept(String className) {
+        if (!includes.isEmpty() && includes.stream().noneMatch(include -> include.test(className))) {
+            return false;
+        }
+        return excludes.stream().noneMatch(exclude -> exclude.test(className));
+    }
+
+    /**
+     * The builder of the configuration, the other methods are generated.
+     */
+    public static class ThemisConfigurationBuilder {
+        private Map<String, Scope> scopes = new LinkedHashMap<>();
+
+        ThemisConfigurationBuilder() {
+        }
+
+        /**
+         * Add a custom scope.
+         *
+         * @param name  the scope name used in {@link com.kpouer.themis.annotation.Component#scope()}
+         * @param scope the scope
+         * @return this builder
+         */
+        public ThemisConfigurationBuilder scope(String name, Scope scope) {
+            scopes.put(name, scope);
+            return this;
+        }
+    }
+}
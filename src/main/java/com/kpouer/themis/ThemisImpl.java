@@ -18,15 +18,26 @@ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
 package com.kpouer.themis;
 
 import com.kpouer.themis.annotation.Component;
+import com.kpouer.themis.annotation.Lazy;
+import com.kpouer.themis.annotation.Pooled;
 import com.kpouer.themis.annotation.Qualifier;
 
-import java.io.File;
-import java.io.IOException;
 import java.lang.reflect.Parameter;
-import java.net.URL;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.jar.JarFile;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * The default implementation of Themis.
@@ -40,58 +51,491 @@ public class ThemisImpl implements Themis {
      * value: the component definition.
      */
     private final Map<String, ComponentDefinition<?>> components = new ConcurrentHashMap<>();
+    /**
+     * The registered components by type
+     * key: the class, a super class or an interface of the components
+     * value: the component definitions in registration order.
+     */
+    private final Map<Class<?>, List<ComponentDefinition<?>>> componentsByType = new ConcurrentHashMap<>();
+    /**
+     * The components returned by {@link #getComponentsOfType(Class)}, reused until the definitions of the type change.
+     * key: the type
+     * value: the snapshot of the components
+     */
+    private final Map<Class<?>, ComponentsSnapshot<?>> snapshots = new ConcurrentHashMap<>();
     private List<ComponentDefinition<?>> pendingInitialization;
+    /**
+     * The component index, generated at compile time or built by scanning the packages.
+     */
+    private final ComponentIndex index;
+    private final Executor shutdownExecutor;
+    private final Executor asyncExecutor;
+    private final boolean metricsEnabled;
+    /**
+     * The startup profiler, null if it is disabled.
+     */
+    private final StartupProfiler profiler;
+    /**
+     * The usage profile, null if it is disabled.
+     */
+    private final UsageProfile usageProfile;
+    /**
+     * The scopes
+     * key: the scope name
+     * value: the scope.
+     */
+    private final Map<String, Scope> scopes;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    /**
+     * Serializes the registrations, the lookups never take it.
+     */
+    private final Lock registrationLock = new ReentrantLock();
+    /**
+     * The parent container, null for a root container.
+     */
+    private final ThemisImpl parent;
+    /**
+     * The component indexes of the child containers, shared by all the containers of a hierarchy.
+     * key: the packages and the filters of the child configuration
+     * value: the index.
+     */
+    private final Map<List<Object>, ComponentIndex> childIndexes;
+    /**
+     * The version of the registrations, shared by all the containers of a hierarchy.
+     * It changes when a component is unregistered or registered after the startup, the injection plans and the
+     * providers resolved for an older version resolve their components again.
+     */
+    private final AtomicLong registryVersion;
+
+    public ThemisImpl(String... packageNames) {
+        this(ThemisConfiguration.builder().packageNames(List.of(packageNames)).build());
+    }
 
-    public ThemisImpl(String pkg) {
+    public ThemisImpl(ThemisConfiguration configuration) {
+        this(null, configuration);
+    }
+
+    /**
+     * Create a container.
+     * A child container only contains its own components and uses the components, the index, the scopes and the
+     * executors of its parent, so it doesn't copy anything from the parent.
+     *
+     * @param parent        the parent container or null
+     * @param configuration the configuration
+     */
+    private ThemisImpl(ThemisImpl parent, ThemisConfiguration configuration) {
+        this.parent = parent;
         pendingInitialization = new ArrayList<>();
+        usageProfile = configuration.getUsageProfile() == null ? null : UsageProfile.load(configuration.getUsageProfile());
+        if (parent == null) {
+            shutdownExecutor = configuration.getShutdownExecutor();
+            metricsEnabled = configuration.isMetricsEnabled();
+            profiler = configuration.isStartupProfilerEnabled() ? new StartupProfiler() : null;
+            asyncExecutor = configuration.getAsyncExecutor() == null ? ForkJoinPool.commonPool() : configuration.getAsyncExecutor();
+            scopes = new HashMap<>();
+            scopes.put(ThreadScope.NAME, new ThreadScope());
+            scopes.put(RequestScope.NAME, new RequestScope());
+            scopes.putAll(configuration.getScopes());
+            childIndexes = new ConcurrentHashMap<>();
+            registryVersion = new AtomicLong();
+            index = loadIndex(configuration);
+        } else {
+            shutdownExecutor = parent.shutdownExecutor;
+            metricsEnabled = parent.metricsEnabled;
+            profiler = parent.profiler == null ? null : new StartupProfiler();
+            asyncExecutor = parent.asyncExecutor;
+            if (configuration.getScopes().isEmpty()) {
+                scopes = parent.scopes;
+            } else {
+                scopes = new HashMap<>(parent.scopes);
+                scopes.putAll(configuration.getScopes());
+            }
+            childIndexes = parent.childIndexes;
+            registryVersion = parent.registryVersion;
+            index = getChildIndex(configuration);
+        }
         registerSingletonInstance(Themis.class.getName(), this);
-        loadPackage(pkg);
-        initPendingComponents();
+        loadPackages(configuration);
+        initPendingComponents(configuration.getStartupExecutor());
         pendingInitialization = null;
+        if (usageProfile != null) {
+            // the components created at startup are only recorded if they are used after it
+            components.values().forEach(componentDefinition -> componentDefinition.setUsageProfile(usageProfile));
+        }
     }
 
-    private void initPendingComponents() {
-        while (!pendingInitialization.isEmpty()) {
-            var iterator = pendingInitialization.iterator();
-            boolean hasChanged = false;
-            while (iterator.hasNext()) {
-                var componentDefinition = iterator.next();
-                try {
+    /**
+     * Returns the compile time component index, the classpath roots of the packages that have no index are scanned.
+     *
+     * @param configuration the configuration
+     * @return the component index
+     */
+    private static ComponentIndex loadIndex(ThemisConfiguration configuration) {
+        var event = new ScanEvent();
+        event.begin();
+        var classLoader = ThemisImpl.class.getClassLoader();
+        var index = ComponentIndex.load(classLoader);
+        var compileTimeIndex = index != null;
+        // the index may come from other roots, the roots compiled without the annotation processor are scanned
+        var scanner = new ClassScanner(classLoader, configuration::accept, index);
+        if (index == null) {
+            index = new ComponentIndex();
+        }
+        var cache = configuration.getScanCache() == null ? null : ScanCache.load(configuration.getScanCache());
+        index.addAll(scanner.scan(configuration.getPackageNames(), cache));
+        if (cache != null) {
+            cache.save();
+        }
+        if (event.shouldCommit()) {
+            event.packages = String.join(", ", configuration.getPackageNames());
+            event.compileTimeIndex = compileTimeIndex;
+            event.components = index.size();
+            event.commit();
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of a child container, the packages are scanned only for the first child with the same
+     * packages and filters.
+     *
+     * @param configuration the configuration of the child
+     * @return the component index
+     */
+    private ComponentIndex getChildIndex(ThemisConfiguration configuration) {
+        if (configuration.getPackageNames().isEmpty()) {
+            return parent.index;
+        }
+        var key = List.<Object>of(configuration.getPackageNames(), configuration.getIncludes(), configuration.getExcludes());
+        return childIndexes.computeIfAbsent(key, k -> loadIndex(configuration));
+    }
+
+    @Override
+    public <T> void registerComponent(String name, T instance) throws ComponentIocException {
+        checkOpen();
+        registerSingletonInstance(name, instance);
+    }
+
+    @Override
+    public void registerComponent(Class<?> componentClass) throws ComponentIocException {
+        checkOpen();
+        var annotation = componentClass.getAnnotation(Component.class);
+        if (annotation == null) {
+            throw new ComponentIocException(componentClass.getName() + " is not annotated with @Component");
+        }
+        registerComponentClass(componentClass, annotation);
+    }
+
+    @Override
+    public <T> void registerComponent(String name,
+                                      Class<T> type,
+                                      Supplier<? extends T> supplier,
+                                      boolean singleton) throws ComponentIocException {
+        checkOpen();
+        registerComponentDefinition(name, new ComponentDefinition<T>(type, singleton, true, () -> type.cast(supplier.get())));
+    }
+
+    @Override
+    public boolean unregisterComponent(String name) throws ComponentIocException {
+        checkOpen();
+        var key = name.toLowerCase();
+        var definitions = new ArrayList<ComponentDefinition<?>>();
+        registrationLock.lock();
+        try {
+            var definition = components.remove(key);
+            if (definition == null) {
+                return false;
+            }
+            definitions.add(definition);
+            // the components created by the factory methods of an unregistered component cannot be created anymore
+            for (var i = 0; i < definitions.size(); i++) {
+                var declaringDefinition = definitions.get(i);
+                unindexType(declaringDefinition);
+                for (var iterator = components.values().iterator(); iterator.hasNext(); ) {
+                    var componentDefinition = iterator.next();
+                    if (componentDefinition.getDeclaringDefinition() == declaringDefinition) {
+                        iterator.remove();
+                        definitions.add(componentDefinition);
+                    }
+                }
+            }
+            registryVersion.incrementAndGet();
+        } finally {
+            registrationLock.unlock();
+        }
+        // the components created by a factory method are destroyed before the component declaring it
+        ComponentIocException exception = null;
+        for (var i = definitions.size() - 1; i >= 0; i--) {
+            try {
+                destroy(definitions.get(i));
+            } catch (ComponentIocException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+        return true;
+    }
+
+    /**
+     * Destroy an unregistered component, its pool is closed and the singleton is destroyed if the container created
+     * it.
+     *
+     * @param definition the definition of the component
+     * @throws ComponentIocException if the component cannot be destroyed
+     */
+    private static void destroy(ComponentDefinition<?> definition) throws ComponentIocException {
+        var instance = definition.release();
+        try {
+            var pool = definition.getPool();
+            if (pool != null) {
+                pool.close();
+            }
+        } finally {
+            if (instance != null && definition.getCreationIndex() != 0) {
+                LifecycleMetadata.of(instance.getClass()).invokePreDestroy(instance);
+            }
+        }
+    }
+
+    private void checkOpen() throws ComponentIocException {
+        if (closed.get()) {
+            throw new ComponentIocException("The container is closed");
+        }
+    }
+
+    @Override
+    public Themis createChild() {
+        return createChild(ThemisConfiguration.builder().build());
+    }
+
+    @Override
+    public Themis createChild(ThemisConfiguration configuration) {
+        checkOpen();
+        return new ThemisImpl(this, configuration);
+    }
+
+    /**
+     * Create the eager components.
+     * They are created in the topological order of their dependencies so that a component is only created once
+     * all the components it needs exist.
+     *
+     * @param executor the executor creating the independent components in parallel, or null to create them
+     *                 in the current thread
+     */
+    private void initPendingComponents(Executor executor) {
+        var graph = DependencyGraph.of(pendingInitialization);
+        if (executor == null) {
+            for (var componentDefinition : graph.getOrder()) {
+                if (isCreatedAtStartup(componentDefinition)) {
                     componentDefinition.getInstance();
-                    iterator.remove();
-                    hasChanged = true;
-                } catch (ComponentIocException ignored) {
-                    // the component is not ready yet
                 }
             }
-            if (!hasChanged) {
-                throw new ComponentIocException("There is a circular dependency + " + pendingInitialization);
+        } else {
+            ParallelStartup.start(graph, ThemisImpl::isCreatedAtStartup, executor);
+        }
+    }
+
+    /**
+     * The eager components and the singletons they depend on are created at startup, lazy prototypes are created
+     * when needed by the components.
+     */
+    private static boolean isCreatedAtStartup(ComponentDefinition<?> componentDefinition) {
+        if (componentDefinition.getScope() != null || componentDefinition.getPool() != null) {
+            return false;
+        }
+        return componentDefinition.isSingleton() || !componentDefinition.isLazy();
+    }
+
+    @Override
+    public void close() throws ComponentIocException {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                ParallelShutdown.stop(components.values(), shutdownExecutor);
+            } finally {
+                try {
+                    closePools();
+                } finally {
+                    if (usageProfile != null) {
+                        usageProfile.save();
+                    }
+                }
+            }
+        }
+    }
+
+    private void closePools() throws ComponentIocException {
+        ComponentIocException exception = null;
+        for (var definition : components.values()) {
+            var pool = definition.getPool();
+            if (pool != null) {
+                try {
+                    pool.close();
+                } catch (ComponentIocException e) {
+                    if (exception == null) {
+                        exception = e;
+                    } else {
+                        exception.addSuppressed(e);
+                    }
+                }
             }
         }
+        if (exception != null) {
+            throw exception;
+        }
     }
 
     @Override
     public <T> T getComponentOfType(Class<T> requiredType) throws ComponentIocException {
+        return (T) getDefinition(requiredType).getInstance();
+    }
+
+    /**
+     * Returns the definition of the component of the given type.
+     * It is first searched by the name of the type, then by the type.
+     *
+     * @param requiredType the type of the component
+     * @return the component definition
+     * @throws ComponentIocException if there is no component or more than one component of that type
+     */
+    private ComponentDefinition<?> getDefinition(Class<?> requiredType) throws ComponentIocException {
+        var definition = findDefinition(requiredType);
+        if (definition == null) {
+            throw new ComponentIocException("No bean with type " + requiredType + " is not registered");
+        }
+        return definition;
+    }
+
+    /**
+     * Returns the definition of the component of the given type, or null if there is none.
+     * The components of a child container hide the components of its parent.
+     *
+     * @param requiredType the type of the component
+     * @return the component definition or null
+     * @throws ComponentIocException if there is more than one component of that type
+     */
+    private ComponentDefinition<?> findDefinition(Class<?> requiredType) throws ComponentIocException {
         var annotation = requiredType.getAnnotation(Component.class);
         var name = annotation == null || annotation.value().isEmpty() ? requiredType.getSimpleName() : annotation.value();
-        var definition = components.get(name.toLowerCase());
-        if (definition == null) {
-            for (ComponentDefinition<?> value : components.values()) {
-                if (requiredType.isAssignableFrom(value.getClazz())) {
-                    definition = value;
-                    break;
+        var key = name.toLowerCase();
+        for (var themis = this; themis != null; themis = themis.parent) {
+            var definition = themis.components.get(key);
+            if (definition != null) {
+                return definition;
+            }
+            var definitions = themis.componentsByType.get(requiredType);
+            if (definitions != null) {
+                if (definitions.size() > 1) {
+                    throw new ComponentIocException("There are " + definitions.size() + " beans of type " + requiredType +
+                                                    ' ' + getNames(definitions) + ", a qualifier is required");
                 }
+                return definitions.get(0);
             }
         }
-        if (definition == null) {
-            throw new ComponentIocException("No bean with type " + requiredType + " is not registered");
+        return null;
+    }
+
+    /**
+     * Returns the definition of the component with the given name in this container or in its ancestors.
+     *
+     * @param key the name of the component in lower case
+     * @return the component definition or null
+     */
+    private ComponentDefinition<?> findNamedDefinition(String key) {
+        for (var themis = this; themis != null; themis = themis.parent) {
+            var definition = themis.components.get(key);
+            if (definition != null) {
+                return definition;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public <T> ComponentRef<T> ref(Class<T> requiredType) throws ComponentIocException {
+        return new ComponentProvider<>(this, () -> getDefinition(requiredType));
+    }
+
+    @Override
+    public <T> ComponentRef<T> ref(String name, Class<T> requiredType) throws ComponentIocException {
+        return new ComponentProvider<>(this, () -> getNamedDefinition(name, requiredType));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getComponentOfTypeAsync(Class<T> requiredType) {
+        try {
+            return getInstanceAsync(getDefinition(requiredType));
+        } catch (ComponentIocException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return (T) definition.getInstance();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getComponentOfTypeAsync(String name, Class<T> requiredType) {
+        try {
+            return getInstanceAsync(getNamedDefinition(name, requiredType));
+        } catch (ComponentIocException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> getInstanceAsync(ComponentDefinition<?> definition) throws ComponentIocException {
+        if (definition.getCreatedInstance() == null) {
+            checkAcyclic(definition);
+        }
+        return (CompletableFuture<T>) definition.getInstanceAsync(asyncExecutor);
+    }
+
+    /**
+     * The threads don't wait for each other, a circular dependency would never complete so it is checked before an
+     * asynchronous creation. The dependencies only change with the registrations, so the check is done once per
+     * registry version.
+     */
+    private void checkAcyclic(ComponentDefinition<?> definition) throws ComponentIocException {
+        var version = registryVersion.get();
+        if (definition.getAcyclicVersion() != version) {
+            DependencyGraph.of(List.of(definition));
+            definition.setAcyclicVersion(version);
+        }
+    }
+
+    @Override
+    public StartupReport getStartupReport() {
+        return profiler == null ? new StartupReport(new ArrayList<>()) : profiler.getReport();
+    }
+
+    @Override
+    public Map<String, ComponentMetrics> getMetrics() {
+        var metrics = new TreeMap<String, ComponentMetrics>();
+        for (var definition : components.values()) {
+            var componentMetrics = definition.getMetrics();
+            if (componentMetrics != null) {
+                metrics.put(definition.getName(), componentMetrics);
+            }
+        }
+        return metrics;
+    }
+
+    Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    long getRegistryVersion() {
+        return registryVersion.get();
     }
 
     @Override
     public <T> T getComponentOfType(String name, Class<T> requiredType) throws ComponentIocException {
-        ComponentDefinition<?> definition = components.get(name.toLowerCase());
+        return (T) getNamedDefinition(name, requiredType).getInstance();
+    }
+
+    private ComponentDefinition<?> getNamedDefinition(String name, Class<?> requiredType) throws ComponentIocException {
+        var definition = findNamedDefinition(name.toLowerCase());
         if (definition == null) {
             throw new ComponentIocException("The bean " + name + " is not registered");
         }
@@ -99,50 +543,289 @@ public class ThemisImpl implements Themis {
         if (!requiredType.isAssignableFrom(definition.getClazz())) {
             throw new ComponentIocException("The bean " + name + " is not of type " + requiredType.getName());
         }
-        return (T) definition.getInstance();
+        return definition;
+    }
+
+    @Override
+    public <T> ComponentPool<T> getPool(Class<T> requiredType) throws ComponentIocException {
+        return getPool(getDefinition(requiredType));
+    }
+
+    @Override
+    public <T> ComponentPool<T> getPool(String name, Class<T> requiredType) throws ComponentIocException {
+        return getPool(getNamedDefinition(name, requiredType));
+    }
+
+    private static <T> ComponentPool<T> getPool(ComponentDefinition<?> definition) throws ComponentIocException {
+        var pool = definition.getPool();
+        if (pool == null) {
+            throw new ComponentIocException("The bean " + definition.getName() + " is not pooled");
+        }
+        return (ComponentPool<T>) pool;
     }
 
     @Override
     public <T> Map<String, T> getComponentsOfType(Class<T> requiredType) throws ComponentIocException {
-        var result = new HashMap<String, T>();
-        for (var entry : components.entrySet()) {
-            ComponentDefinition<?> definition = entry.getValue();
-            if (requiredType.isAssignableFrom(definition.getClazz())) {
-                var instance = (T) definition.getInstance();
-                result.put(entry.getKey(), instance);
+        return getSnapshot(requiredType).getComponents();
+    }
+
+    /**
+     * Returns the components of a type.
+     * The snapshot is kept while all the components are singletons and no component of the type is registered.
+     * The snapshot of a child container extends the snapshot of its parent.
+     *
+     * @param requiredType the type of the components
+     * @return the snapshot of the components
+     * @throws ComponentIocException if a component can't be created
+     */
+    <T> ComponentsSnapshot<T> getSnapshot(Class<T> requiredType) throws ComponentIocException {
+        var definitions = componentsByType.getOrDefault(requiredType, List.of());
+        var inherited = parent == null ? null : parent.getSnapshot(requiredType);
+        if (inherited != null && definitions.isEmpty()) {
+            return inherited;
+        }
+        var snapshot = (ComponentsSnapshot<T>) snapshots.get(requiredType);
+        if (snapshot != null && snapshot.isSnapshotOf(definitions, inherited)) {
+            if (metricsEnabled) {
+                snapshot.countLookups();
+            }
+            return snapshot;
+        }
+        snapshot = ComponentsSnapshot.create(definitions, inherited);
+        if (snapshot.isReusable()) {
+            snapshots.put(requiredType, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the definitions of the components of a type, the ones of the parent first.
+     *
+     * @param requiredType the type of the components
+     * @return the definitions
+     */
+    List<ComponentDefinition<?>> getDefinitionsOfType(Class<?> requiredType) {
+        var definitions = componentsByType.getOrDefault(requiredType, List.of());
+        if (parent == null) {
+            return definitions;
+        }
+        var inherited = parent.getDefinitionsOfType(requiredType);
+        if (definitions.isEmpty()) {
+            return inherited;
+        }
+        var result = new ArrayList<ComponentDefinition<?>>(inherited.size() + definitions.size());
+        for (var definition : inherited) {
+            if (!components.containsKey(definition.getName())) {
+                result.add(definition);
             }
         }
+        result.addAll(definitions);
         return result;
     }
 
-    Object[] getArgs(Parameter[] parameters) {
-        var args = new Object[parameters.length];
+    private static List<String> getNames(List<ComponentDefinition<?>> definitions) {
+        var names = new ArrayList<String>(definitions.size());
+        for (var definition : definitions) {
+            names.add(definition.getName());
+        }
+        return names;
+    }
+
+    @Override
+    public <T> T getQualifiedComponent(String name, Class<T> requiredType) throws ComponentIocException {
+        return (T) getQualifiedDefinition(name, requiredType).getInstance();
+    }
+
+    private ComponentDefinition<?> getQualifiedDefinition(String name, Class<?> requiredType) throws ComponentIocException {
+        var definition = findQualifiedDefinition(name, requiredType);
+        if (definition == null) {
+            throw new ComponentIocException("No bean with type " + requiredType + " is not registered");
+        }
+        return definition;
+    }
+
+    private ComponentDefinition<?> findQualifiedDefinition(String name, Class<?> requiredType) throws ComponentIocException {
+        var definition = findNamedDefinition(name.toLowerCase());
+        if (definition != null && requiredType.isAssignableFrom(definition.getClazz())) {
+            return definition;
+        }
+        return findDefinition(requiredType);
+    }
+
+    /**
+     * Resolve the definitions of the components to inject in the given parameters.
+     *
+     * @param parameters the parameters of a constructor or a factory method
+     * @return the definitions
+     * @throws ComponentIocException if a parameter cannot be resolved
+     */
+    ComponentDefinition<?>[] getDependencies(Parameter[] parameters) throws ComponentIocException {
+        var dependencies = new ComponentDefinition<?>[parameters.length];
         for (var i = 0; i < parameters.length; i++) {
             var parameter = parameters[i];
             try {
-                Class<?> type = parameter.getType();
-                var qualifier = parameter.getAnnotation(Qualifier.class);
-                Object component = null;
-                if (qualifier != null) {
-                    var name = qualifier.value();
-                    if (name.isEmpty()) {
-                        name = parameter.getName();
-                    }
-                    try {
-                        component = getComponentOfType(name, type);
-                    } catch (ComponentIocException e) {
-                        // unable to find a component with the qualifier name
-                    }
-                }
-                if (component == null) {
-                    component = getComponentOfType(type);
-                }
-                args[i] = component;
+                dependencies[i] = getDependency(parameter);
             } catch (ComponentIocException e) {
                 throw new ComponentIocException("Unable to create component of type " + parameter, e);
             }
         }
-        return args;
+        return dependencies;
+    }
+
+    /**
+     * Resolve the definition to inject in a parameter.
+     * A {@link Provider}, a {@link Supplier} or an {@link Optional} of a component is injected without creating the
+     * component, as well as a {@link Lazy} parameter that receives a proxy.
+     * A {@link List}, a {@link Collection} or a {@link Map} by name receives all the components of its type argument.
+     * A pooled component cannot be injected, a {@link ComponentPool} parameter receives its pool.
+     *
+     * @param parameter the parameter
+     * @return the definition
+     * @throws ComponentIocException if the parameter cannot be resolved
+     */
+    private ComponentDefinition<?> getDependency(Parameter parameter) throws ComponentIocException {
+        var type = parameter.getType();
+        if (type == Provider.class || type == Supplier.class) {
+            var elementType = getTypeArgument(parameter.getParameterizedType(), parameter);
+            var provider = new ComponentProvider<>(this, () -> getDependency(parameter, elementType));
+            var definition = ComponentDefinition.createSingleton(provider);
+            definition.setReference(provider);
+            return definition;
+        }
+        if (type == List.class || type == Collection.class) {
+            var elementType = getTypeArgument(parameter.getParameterizedType(), 0, parameter);
+            return createComponentsDefinition(type, elementType, ComponentsSnapshot::getList);
+        }
+        if (type == Map.class) {
+            if (getTypeArgument(parameter.getParameterizedType(), 0, parameter) != String.class) {
+                throw new ComponentIocException("The keys of the map " + parameter + " must be the component names");
+            }
+            var valueType = getTypeArgument(parameter.getParameterizedType(), 1, parameter);
+            return createComponentsDefinition(type, valueType, ComponentsSnapshot::getComponents);
+        }
+        if (type == ComponentPool.class) {
+            var pooledType = getTypeArgument(parameter.getParameterizedType(), parameter);
+            var definition = findParameterDefinition(parameter, pooledType);
+            if (definition == null) {
+                throw new ComponentIocException("No bean with type " + pooledType + " is not registered");
+            }
+            return ComponentDefinition.createSingleton(getPool(definition));
+        }
+        if (type == Optional.class) {
+            var definition = findDependency(parameter, getTypeArgument(parameter.getParameterizedType(), parameter));
+            if (definition == null) {
+                return ComponentDefinition.createSingleton(Optional.empty());
+            }
+            return createOptionalDefinition(definition);
+        }
+        if (parameter.isAnnotationPresent(Lazy.class)) {
+            if (!type.isInterface()) {
+                throw new ComponentIocException("The lazy parameter " + parameter + " must be an interface");
+            }
+            return createLazyDefinition(type, new ComponentProvider<>(this, () -> getDependency(parameter, type)));
+        }
+        return getDependency(parameter, type);
+    }
+
+    private <T> ComponentDefinition<Optional<T>> createOptionalDefinition(ComponentDefinition<T> definition) {
+        var clazz = (Class<Optional<T>>) (Class<?>) Optional.class;
+        return new ComponentDefinition<>(clazz, false, true, new OptionalCreator<>(this, definition));
+    }
+
+    private <C> ComponentDefinition<C> createComponentsDefinition(Class<?> collectionType,
+                                                                   Class<?> type,
+                                                                   Function<ComponentsSnapshot<?>, C> view) {
+        var clazz = (Class<C>) collectionType;
+        return new ComponentDefinition<>(clazz, false, true, new ComponentsCreator<>(this, type, view));
+    }
+
+    private static <T> ComponentDefinition<T> createLazyDefinition(Class<T> type, ComponentProvider<?> provider) {
+        var definition = new ComponentDefinition<>(type, false, true, () -> LazyProxy.create(type, provider));
+        definition.setReference(provider);
+        return definition;
+    }
+
+    private ComponentDefinition<?> getDependency(Parameter parameter, Class<?> type) throws ComponentIocException {
+        var definition = findDependency(parameter, type);
+        if (definition == null) {
+            throw new ComponentIocException("No bean with type " + type + " is not registered");
+        }
+        return definition;
+    }
+
+    /**
+     * Resolve the definition of a dependency of a {@link GeneratedCreator}, like a parameter of a constructor.
+     *
+     * @param type      the type of the dependency
+     * @param qualifier the qualifier of the dependency or null
+     * @return the definition
+     * @throws ComponentIocException if the dependency cannot be resolved
+     */
+    ComponentDefinition<?> getDependency(Class<?> type, String qualifier) throws ComponentIocException {
+        var definition = qualifier == null ? findDefinition(type) : findQualifiedDefinition(qualifier, type);
+        if (definition == null) {
+            throw new ComponentIocException("No bean with type " + type + " is not registered");
+        }
+        definition.checkNotPooled();
+        return definition;
+    }
+
+    private ComponentDefinition<?> findDependency(Parameter parameter, Class<?> type) throws ComponentIocException {
+        var definition = findParameterDefinition(parameter, type);
+        if (definition != null && definition.getPool() != null) {
+            throw new ComponentIocException("The pooled component " + definition.getName() + " cannot be injected in " +
+                                            parameter + ", its ComponentPool can be injected");
+        }
+        return definition;
+    }
+
+    private ComponentDefinition<?> findParameterDefinition(Parameter parameter, Class<?> type) throws ComponentIocException {
+        var qualifier = parameter.getAnnotation(Qualifier.class);
+        if (qualifier == null) {
+            return findDefinition(type);
+        }
+        var name = qualifier.value();
+        if (name.isEmpty()) {
+            name = parameter.getName();
+        }
+        return findQualifiedDefinition(name, type);
+    }
+
+    /**
+     * Returns the class of the type argument of a generic type like <code>Provider&lt;T&gt;</code>.
+     *
+     * @param genericType the generic type of a parameter or of a method
+     * @param element     the parameter or the method
+     * @return the type argument
+     * @throws ComponentIocException if the type argument is not known
+     */
+    private static Class<?> getTypeArgument(Type genericType, Object element) throws ComponentIocException {
+        return getTypeArgument(genericType, 0, element);
+    }
+
+    /**
+     * Returns the class of a type argument of a generic type like <code>Map&lt;String, T&gt;</code>.
+     *
+     * @param genericType the generic type of a parameter or of a method
+     * @param index       the index of the type argument
+     * @param element     the parameter or the method
+     * @return the type argument
+     * @throws ComponentIocException if the type argument is not known
+     */
+    private static Class<?> getTypeArgument(Type genericType, int index, Object element) throws ComponentIocException {
+        if (genericType instanceof ParameterizedType parameterizedType) {
+            var typeArgument = parameterizedType.getActualTypeArguments()[index];
+            if (typeArgument instanceof WildcardType wildcardType) {
+                typeArgument = wildcardType.getUpperBounds()[0];
+            }
+            if (typeArgument instanceof ParameterizedType parameterizedTypeArgument) {
+                typeArgument = parameterizedTypeArgument.getRawType();
+            }
+            if (typeArgument instanceof Class<?> clazz) {
+                return clazz;
+            }
+        }
+        throw new ComponentIocException("Unable to resolve the type argument of " + element);
     }
 
     /**
@@ -157,26 +840,129 @@ public class ThemisImpl implements Themis {
         registerComponentDefinition(name, componentDefinition);
     }
 
+    /**
+     * Register a component definition.
+     * The registrations are serialized by the registration lock, the lookups don't take it. The definition is added
+     * to the type index before being published by name and the lists of the type index are replaced, so a lookup
+     * sees either the previous or the new state of a type.
+     *
+     * @param name                the name of the component
+     * @param componentDefinition the definition
+     * @throws ComponentIocException if a component with the same name is already registered in this container
+     */
     private void registerComponentDefinition(String name, ComponentDefinition<?> componentDefinition) {
-        if (components.put(name.toLowerCase(), componentDefinition) != null) {
-            throw new ComponentIocException("The component " + name + " is already registered");
+        var event = new RegistrationEvent();
+        event.begin();
+        var key = name.toLowerCase();
+        componentDefinition.setName(key);
+        if (metricsEnabled) {
+            componentDefinition.setMetrics(new ComponentMetrics());
         }
-        if (!componentDefinition.isLazy()) {
-            try {
+        componentDefinition.setProfiler(profiler);
+        registrationLock.lock();
+        try {
+            if (components.containsKey(key)) {
+                throw new ComponentIocException("The component " + name + " is already registered");
+            }
+            indexType(componentDefinition);
+            components.put(key, componentDefinition);
+            if (pendingInitialization == null) {
+                // the components registered at startup are not resolved yet
+                registryVersion.incrementAndGet();
+            }
+        } finally {
+            registrationLock.unlock();
+        }
+        if (event.shouldCommit()) {
+            event.name = key;
+            event.componentClass = componentDefinition.getClazz();
+            event.singleton = componentDefinition.isSingleton();
+            event.lazy = componentDefinition.isLazy();
+            event.commit();
+        }
+        if (componentDefinition.getScope() == null &&
+            componentDefinition.getPool() == null &&
+            (!componentDefinition.isLazy() || isHot(componentDefinition))) {
+            if (pendingInitialization == null) {
                 componentDefinition.getInstance();
-            } catch (ComponentIocException e) {
-                if (e.getCause() != null && !(e.getCause() instanceof ComponentIocException)) {
-                    // there is an external cause, we will throw it
-                    throw e;
-                }
-                // unable to create the instance now, we will try later
+            } else {
+                // the component will be created once all the components are registered
                 pendingInitialization.add(componentDefinition);
             }
         }
+        if (pendingInitialization == null) {
+            componentDefinition.setUsageProfile(usageProfile);
+        }
         initMethodComponents(componentDefinition);
     }
 
+    /**
+     * Tells if a lazy singleton was used by the previous run, it is then created at startup. The hot prototypes are
+     * still created when they are needed.
+     */
+    private boolean isHot(ComponentDefinition<?> componentDefinition) {
+        return usageProfile != null && componentDefinition.isSingleton() && usageProfile.isHot(componentDefinition.getName());
+    }
+
+    /**
+     * Add the component definition to the type index for its class, super classes and interfaces.
+     *
+     * @param componentDefinition the component definition
+     */
+    private void indexType(ComponentDefinition<?> componentDefinition) {
+        for (var type : getTypeHierarchy(componentDefinition.getClazz())) {
+            componentsByType.compute(type, (key, definitions) -> {
+                if (definitions == null) {
+                    return List.of(componentDefinition);
+                }
+                var newDefinitions = new ArrayList<ComponentDefinition<?>>(definitions.size() + 1);
+                newDefinitions.addAll(definitions);
+                newDefinitions.add(componentDefinition);
+                return Collections.unmodifiableList(newDefinitions);
+            });
+        }
+    }
+
+    /**
+     * Remove the component definition from the type index.
+     *
+     * @param componentDefinition the component definition
+     */
+    private void unindexType(ComponentDefinition<?> componentDefinition) {
+        for (var type : getTypeHierarchy(componentDefinition.getClazz())) {
+            componentsByType.computeIfPresent(type, (key, definitions) -> {
+                var newDefinitions = new ArrayList<>(definitions);
+                newDefinitions.remove(componentDefinition);
+                return newDefinitions.isEmpty() ? null : Collections.unmodifiableList(newDefinitions);
+            });
+            snapshots.remove(type);
+        }
+    }
+
+    private static Set<Class<?>> getTypeHierarchy(Class<?> clazz) {
+        var types = new LinkedHashSet<Class<?>>();
+        var pending = new ArrayDeque<Class<?>>();
+        pending.add(clazz);
+        while (!pending.isEmpty()) {
+            var type = pending.poll();
+            if (types.add(type)) {
+                if (type.getSuperclass() != null) {
+                    pending.add(type.getSuperclass());
+                }
+                Collections.addAll(pending, type.getInterfaces());
+            }
+        }
+        if (!clazz.isPrimitive()) {
+            // interfaces have no super class but are assignable to Object
+            types.add(Object.class);
+        }
+        return types;
+    }
+
     private void initMethodComponents(ComponentDefinition<?> componentDefinition) {
+        if (!index.mayDeclareFactories(componentDefinition.getClazz())) {
+            return;
+        }
         var declaredMethods = componentDefinition.getClazz().getDeclaredMethods();
         for (var declaredMethod : declaredMethods) {
             var annotation = declaredMethod.getAnnotation(Component.class);
@@ -186,120 +972,120 @@ public class ThemisImpl implements Themis {
                 }
                 var name = annotation.value().isEmpty() ? declaredMethod.getName() : annotation.value();
 
-                var definition = ComponentDefinition.create(this,
+                ComponentDefinition<?> definition;
+                var creatorName = index.getCreator(declaredMethod);
+                var returnType = declaredMethod.getReturnType();
+                if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+                    definition = ComponentDefinition.createAsync(this,
+                                                                 componentDefinition,
+                                                                 declaredMethod,
+                                                                 getTypeArgument(declaredMethod.getGenericReturnType(), declaredMethod),
+                                                                 annotation.singleton(),
+                                                                 annotation.lazy());
+                } else if (creatorName == null) {
+                    definition = ComponentDefinition.create(this,
                                                             componentDefinition,
                                                             declaredMethod,
                                                             annotation.singleton(),
                                                             annotation.lazy());
+                } else {
+                    definition = new ComponentDefinition<>(declaredMethod.getReturnType(),
+                                                           annotation.singleton(),
+                                                           annotation.lazy(),
+                                                           index.newCreator(creatorName, this));
+                }
+                definition.setDeclaringDefinition(componentDefinition);
+                definition.setScope(getScope(annotation));
+                setPool(name, definition, declaredMethod.getAnnotation(Pooled.class));
                 registerComponentDefinition(name, definition);
             }
         }
     }
 
     /**
-     * Load the classes from a package.
-     * Components are not instantiated at this time
-     * @param pkg the package name
+     * Create the pool of a pooled component.
+     *
+     * @param name       the name of the component
+     * @param definition the definition of the component
+     * @param pooled     the pooled annotation or null if the component is not pooled
+     * @throws ComponentIocException if the component is not a prototype or if the pool is invalid
      */
-    private void loadPackage(String pkg) {
-        var classes = getClasses(pkg);
-        for (var aClass : classes) {
-            Component annotation = aClass.getAnnotation(Component.class);
-            if (annotation != null) {
-                var value = annotation.value();
-                var name = value.isEmpty() ? aClass.getSimpleName() : value;
-                registerComponentDefinition(name, ComponentDefinition.create(this, aClass, annotation.singleton(), annotation.lazy()));
-            }
+    private static <T> void setPool(String name, ComponentDefinition<T> definition, Pooled pooled) throws ComponentIocException {
+        if (pooled == null) {
+            return;
+        }
+        if (definition.isSingleton() || definition.getScope() != null) {
+            throw new ComponentIocException("The pooled component " + name + " must be a prototype");
         }
+        definition.setPool(new ComponentPool<>(name, definition.getInstrumentedCreator(), pooled));
     }
 
-    private static List<Class<?>> getClasses(String packageName) {
-        // Get name of package and turn it to a relative path
-        // Get a File object for the package
-        try {
-            var relPath = packageName.replace('.', '/');
-            var resources = ThemisImpl.class.getClassLoader().getResources(relPath);
-            var classes = new ArrayList<Class<?>>();
-            if (!resources.hasMoreElements()) {
-                throw new ComponentIocException("Unexpected problem: No resource for " + relPath);
-            } else {
-                do {
-                    var resource = resources.nextElement();
-                    // If the resource is a jar get all classes from jar
-                    if (resource.toString().startsWith("jar:")) {
-                        classes.addAll(processJarfile(resource, packageName));
-                    } else {
-                        var dir = new File(resource.getPath());
-                        classes.addAll(processDirectory(dir, packageName));
-                    }
-                } while (resources.hasMoreElements());
-            }
-            return classes;
-        } catch (IOException e) {
-            throw new ComponentIocException("Unexpected error loading resources", e);
+    /**
+     * Returns the scope of a component.
+     *
+     * @param annotation the component annotation
+     * @return the scope or null if the component is a singleton or a prototype
+     * @throws ComponentIocException if the scope doesn't exist
+     */
+    private Scope getScope(Component annotation) throws ComponentIocException {
+        var scopeName = annotation.scope();
+        if (scopeName.isEmpty()) {
+            return null;
         }
+        var scope = scopes.get(scopeName);
+        if (scope == null) {
+            throw new ComponentIocException("Unknown scope " + scopeName + ", the available scopes are " + scopes.keySet());
+        }
+        return scope;
     }
 
-    private static List<Class<?>> processJarfile(URL resource, String packageName) {
-        var classes = new ArrayList<Class<?>>();
-        // Turn package name to relative path to jar file
-        var relPath = packageName.replace('.', '/');
-        var resPath = resource.getPath();
-        var jarPath = resPath.replaceFirst(".jar!.*", ".jar").replaceFirst("file:", "");
-
-        try (var jarFile = new JarFile(jarPath)) {
-            // attempt to load jar file
-
-            // get contents of jar file and iterate through them
-            var entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                var entry = entries.nextElement();
-
-                // Get content name from jar file
-                var    entryName = entry.getName();
-                String className = null;
-
-                // If content is a class save class name.
-                if (entryName.endsWith(".class") && entryName.startsWith(relPath)
-                    && entryName.length() > (relPath.length() + "/".length())) {
-                    className = entryName.replace('/', '.').replace('\\', '.').replace(".class", "");
-                }
-
-                // If content is a class add class to List
-                if (className != null) {
-                    classes.add(loadClass(className));
+    /**
+     * Load the classes of the packages from the component index.
+     * Components are not instantiated at this time
+     * @param configuration the configuration
+     */
+    private void loadPackages(ThemisConfiguration configuration) {
+        var classNames = new LinkedHashSet<String>();
+        for (var packageName : configuration.getPackageNames()) {
+            for (var className : index.getComponents(packageName)) {
+                if (configuration.accept(className)) {
+                    classNames.add(className);
                 }
             }
-        } catch (IOException e) {
-            throw new ComponentIocException("Unexpected IOException reading JAR File " + jarPath, e);
-        }
-        return classes;
-    }
-
-    private static List<Class<?>> processDirectory(File dir, String packageName) {
-        var classes = new ArrayList<Class<?>>();
-        var list = dir.list();
-        if (list != null) {
-            for (var file : list) {
-                // we are only interested in .class files
-                if (file.endsWith(".class")) {
-                    // removes the .class extension
-                    var cls = packageName + '.' + file.substring(0, file.length() - 6);
-                    classes.add(loadClass(cls));
-                }
-                // If the file is a directory recursively class this method.
-                var subdir = new File(dir, file);
-                if (subdir.isDirectory()) {
-                    classes.addAll(processDirectory(subdir, packageName + '.' + file));
-                }
+        }
+        for (var className : classNames) {
+            var aClass = loadClass(className);
+            Component annotation = aClass.getAnnotation(Component.class);
+            if (annotation != null) {
+                registerComponentClass(aClass, annotation);
             }
         }
-        return classes;
     }
 
+    private void registerComponentClass(Class<?> aClass, Component annotation) {
+        var value = annotation.value();
+        var name = value.isEmpty() ? aClass.getSimpleName() : value;
+        var creatorName = index.getCreator(aClass);
+        ComponentDefinition<?> definition;
+        if (creatorName == null) {
+            definition = ComponentDefinition.create(this, aClass, annotation.singleton(), annotation.lazy());
+        } else {
+            definition = new ComponentDefinition<>(aClass, annotation.singleton(), annotation.lazy(), index.newCreator(creatorName, this));
+        }
+        definition.setScope(getScope(annotation));
+        setPool(name, definition, aClass.getAnnotation(Pooled.class));
+        registerComponentDefinition(name, definition);
+    }
+
+    /**
+     * Load a class without initializing it, it will be initialized when the component is created.
+     *
+     * @param cls the class name
+     * @return the class
+     */
     private static Class<?> loadClass(String cls) {
         try {
-            return Class.forName(cls);
+            return Class.forName(cls, false, ThemisImpl.class.getClassLoader());
         } catch (ClassNotFoundException e) {
             throw new ComponentIocException(String.format("Unexpected ClassNotFoundException loading class [%s]", cls), e);
         }
@@ -0,0 +1,69 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The thread scope, each thread has its own instance of the components.
+ * The instances are kept until the thread ends or {@link #clear()} is called by the thread, threads of a pool should
+ * call it when they are done with a task. Like the request scope the instances are bound to the thread, they are shared
+ * by all the containers.
+ *
+ * @author Matthieu Casanova
+ */
+public class ThreadScope implements Scope {
+    public static final String NAME = "thread";
+
+    /**
+     * The instances of the current thread, in creation order
+     * key: the creator of the component
+     * value: the instance.
+     */
+    private static final ThreadLocal<Map<Creator<?>, Object>> INSTANCES = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    /**
+     * The scope is registered by the container.
+     */
+    ThreadScope() {
+    }
+
+    @Override
+    public <T> T get(String name, Creator<T> creator) throws ComponentIocException {
+        var threadInstances = INSTANCES.get();
+        var instance = (T) threadInstances.get(creator);
+        if (instance == null) {
+            instance = creator.create();
+            threadInstances.put(creator, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Destroy the instances of the current thread in the reverse order of their creation.
+     *
+     * @throws ComponentIocException if an instance cannot be destroyed, the others are destroyed
+     */
+    public static void clear() throws ComponentIocException {
+        var threadInstances = INSTANCES.get();
+        INSTANCES.remove();
+        LifecycleMetadata.destroy(new ArrayList<>(threadInstances.values()));
+    }
+}
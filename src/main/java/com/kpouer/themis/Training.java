@@ -0,0 +1,168 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The training mode, it writes the list of the classes loaded to start a container so they can be stored in an AppCDS
+ * archive.
+ * The container is started in a new JVM with the same class path, all its components are created and destroyed, and
+ * the JVM writes the classes it loaded. The archive is then created from that list.
+ * <pre>
+ * java -cp themis.jar:app.jar com.kpouer.themis.Training --archive app.jsa com.kpouer.app
+ * java -XX:SharedArchiveFile=app.jsa -cp themis.jar:app.jar com.kpouer.app.Main
+ * </pre>
+ *
+ * @author Matthieu Casanova
+ */
+public final class Training {
+    private static final String RUN_PROPERTY = "themis.training.run";
+    private static final String USAGE = "Usage: java -cp <class path> com.kpouer.themis.Training " +
+                                        "[--class-list <file>] [--archive <file>] <package>...";
+
+    private Training() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (Boolean.getBoolean(RUN_PROPERTY)) {
+            run(args).forEach(System.err::println);
+            return;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            exit(e.getMessage());
+            return;
+        }
+        execute(options.getClassListCommand());
+        System.out.println("Class list written in " + options.classList());
+        if (options.archive() != null) {
+            execute(options.getArchiveCommand());
+            System.out.println("Archive written in " + options.archive() + ", use it with -XX:SharedArchiveFile=" + options.archive());
+        }
+    }
+
+    /**
+     * Run a java command with the class path of this JVM, exit if it fails.
+     */
+    private static void execute(List<String> arguments) throws IOException, InterruptedException {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.addAll(arguments);
+        var exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exitCode != 0) {
+            exit("The command " + String.join(" ", command) + " failed with exit code " + exitCode);
+        }
+    }
+
+    private static void exit(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+
+    /**
+     * Start a container, create all its components in a request and close it.
+     * A component that cannot be created is reported, the others are still created.
+     *
+     * @param packageNames the packages to scan
+     * @return the components that could not be created
+     */
+    static List<String> run(String... packageNames) {
+        var failures = new ArrayList<String>();
+        try (var themis = new ThemisImpl(packageNames)) {
+            RequestScope.run(() -> {
+                for (var definition : themis.getDefinitionsOfType(Object.class)) {
+                    try {
+                        definition.getInstance();
+                    } catch (ComponentIocException e) {
+                        failures.add("Unable to create " + definition.getName() + ": " + e.getMessage());
+                    }
+                }
+            });
+        }
+        return failures;
+    }
+
+    /**
+     * The command line of the training.
+     *
+     * @param classList    the class list to write
+     * @param archive      the archive to create from the class list, null to only write the class list
+     * @param packageNames the packages of the container
+     */
+    record Options(Path classList, Path archive, List<String> packageNames) {
+        /**
+         * Parse the command line.
+         *
+         * @param args the arguments
+         * @return the options
+         * @throws IllegalArgumentException if the arguments are invalid, the message is the usage
+         */
+        static Options parse(String... args) {
+            var classList = Path.of("themis.classlist");
+            Path archive = null;
+            var packageNames = new ArrayList<String>();
+            for (var i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--class-list" -> classList = Path.of(getValue(args, ++i));
+                    case "--archive" -> archive = Path.of(getValue(args, ++i));
+                    default -> packageNames.add(args[i]);
+                }
+            }
+            if (packageNames.isEmpty()) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            return new Options(classList, archive, List.copyOf(packageNames));
+        }
+
+        private static String getValue(String[] args, int index) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            return args[index];
+        }
+
+        /**
+         * Returns the arguments of the JVM starting the container and writing the classes it loads.
+         */
+        List<String> getClassListCommand() {
+            var command = new ArrayList<String>();
+            command.add("-XX:DumpLoadedClassList=" + classList.toAbsolutePath());
+            command.add("-D" + RUN_PROPERTY + "=true");
+            command.add(Training.class.getName());
+            command.addAll(packageNames);
+            return command;
+        }
+
+        /**
+         * Returns the arguments of the JVM creating the archive from the class list.
+         */
+        List<String> getArchiveCommand() {
+            return List.of("-Xshare:dump",
+                           "-XX:SharedClassListFile=" + classList.toAbsolutePath(),
+                           "-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The components used by a run of the container.
+ * The components resolved after the startup, by a lookup or to be injected, are recorded with the time of their first
+ * use. The profile of the previous run gives the hot components, the singletons created at startup by the next run.
+ * Like the scan cache the profile is only an optimization, if the file cannot be read it is ignored.
+ *
+ * @author Matthieu Casanova
+ */
+final class UsageProfile {
+    private static final System.Logger LOGGER = System.getLogger(UsageProfile.class.getName());
+    private static final String HEADER = "# Themis usage profile, component name and first use in milliseconds";
+
+    private final Path file;
+    private final long origin = System.nanoTime();
+    /**
+     * The components used by the previous run.
+     */
+    private final Set<String> hotComponents;
+    /**
+     * The components used by the current run.
+     * key: the component name
+     * value: the first use in nanoseconds since the container was created
+     */
+    private final Map<String, Long> usedComponents = new ConcurrentHashMap<>();
+
+    private UsageProfile(Path file, Set<String> hotComponents) {
+        this.file = file;
+        this.hotComponents = hotComponents;
+    }
+
+    /**
+     * Load the profile of the previous run.
+     *
+     * @param file the profile file
+     * @return the profile, without hot components if the file does not exist or cannot be read
+     */
+    static UsageProfile load(Path file) {
+        var hotComponents = ConcurrentHashMap.<String>newKeySet();
+        if (Files.isRegularFile(file)) {
+            try {
+                for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    var fields = line.split("\t");
+                    if (fields.length == 2 && !line.startsWith("#")) {
+                        hotComponents.add(fields[0]);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // the profile is corrupted, the components keep their default lazyness
+                hotComponents.clear();
+            }
+        }
+        return new UsageProfile(file, hotComponents);
+    }
+
+    /**
+     * Tells if the component was used by the previous run.
+     *
+     * @param name the name of the component
+     * @return true if the component is hot
+     */
+    boolean isHot(String name) {
+        return hotComponents.contains(name);
+    }
+
+    /**
+     * Record the use of a component, only the first use is kept.
+     *
+     * @param definition the definition of the component
+     */
+    void used(ComponentDefinition<?> definition) {
+        usedComponents.putIfAbsent(definition.getName(), System.nanoTime() - origin);
+    }
+
+    /**
+     * Save the components used by the current run, in the order of their first use.
+     * If the profile cannot be written the failure is logged, the next run will create the components according to
+     * their default lazyness.
+     */
+    void save() {
+        var lines = new ArrayList<String>(usedComponents.size() + 1);
+        lines.add(HEADER);
+        usedComponents.entrySet()
+                      .stream()
+                      .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                      .forEach(entry -> lines.add(entry.getKey() + '\t' + TimeUnit.NANOSECONDS.toMillis(entry.getValue())));
+        try {
+            AtomicFiles.write(file, lines);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Unable to write usage profile " + file, e);
+        }
+    }
+}
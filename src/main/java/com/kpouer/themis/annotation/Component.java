@@ -30,4 +30,11 @@ public @interface Component {
     boolean singleton() default true;
 
     boolean lazy() default true;
+
+    /**
+     * The name of the scope of the component, {@link com.kpouer.themis.ThreadScope#NAME},
+     * {@link com.kpouer.themis.RequestScope#NAME} or a scope added to the configuration.
+     * A scoped component is never created at startup and {@link #singleton()} is ignored.
+     */
+    String scope() default "";
 }
@@ -0,0 +1,54 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pool the instances of a prototype component.
+ * The instances are borrowed from the {@link com.kpouer.themis.ComponentPool} of the component and returned to it
+ * once used, the methods annotated with {@link PoolReset} are called when an instance is returned.
+ * The component cannot be looked up nor injected, a parameter of type {@link com.kpouer.themis.ComponentPool} receives
+ * its pool.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Pooled {
+    /**
+     * The number of instances created when the pool is first used and kept when evicting idle instances.
+     */
+    int min() default 0;
+
+    /**
+     * The maximum number of instances, idle or borrowed.
+     */
+    int max() default 8;
+
+    /**
+     * The time in milliseconds after which an idle instance is destroyed, 0 to never destroy them.
+     */
+    long idleTimeout() default 60_000;
+
+    /**
+     * The maximum time in milliseconds to wait for an instance when they are all borrowed.
+     */
+    long maxWait() default 30_000;
+}
@@ -1,6 +1,7 @@
 module com.kpouer.themis {
     requires static lombok;
     requires jakarta.annotation;
+    requires jdk.jfr;
     exports com.kpouer.themis;
     exports com.kpouer.themis.annotation;
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.scan.ScanFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassScannerTest {
+    static final String PACKAGE_NAME = ScanFixtures.class.getPackageName();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scanDirectory() {
+        var index = new ClassScanner(getClass().getClassLoader(), className -> true).scan(List.of(PACKAGE_NAME), null);
+        assertEquals(List.of(ScanFixtures.Factories.class.getName(), ScanFixtures.Service.class.getName()),
+                     index.getComponents(PACKAGE_NAME));
+        assertTrue(index.mayDeclareFactories(ScanFixtures.Factories.class));
+        assertFalse(index.mayDeclareFactories(ScanFixtures.Service.class));
+    }
+
+    @Test
+    void excludedClassesAreNotIndexed() {
+        var scanner = new ClassScanner(getClass().getClassLoader(), className -> !className.endsWith("Factories"));
+        assertEquals(List.of(ScanFixtures.Service.class.getName()), scanner.scan(List.of(PACKAGE_NAME), null).getComponents(PACKAGE_NAME));
+    }
+
+    @Test
+    void scanJar() throws IOException {
+        var jar = createJar(directory.resolve("components.jar"));
+        try (var classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            var index = new ClassScanner(classLoader, className -> true).scan(List.of(PACKAGE_NAME), null);
+            assertEquals(List.of(ScanFixtures.Factories.class.getName(), ScanFixtures.Service.class.getName()),
+                         index.getComponents(PACKAGE_NAME));
+        }
+    }
+
+    @Test
+    void scanNestedJar() throws IOException {
+        var innerJar = createJar(directory.resolve("inner.jar"));
+        var outerJar = directory.resolve("outer.jar");
+        try (var out = new JarOutputStream(Files.newOutputStream(outerJar))) {
+            out.putNextEntry(new JarEntry("lib/inner.jar"));
+            Files.copy(innerJar, out);
+            out.closeEntry();
+        }
+        var packageUrl = new URL("jar:" + outerJar.toUri() + "!/lib/inner.jar!/" + PACKAGE_NAME.replace('.', '/'));
+        var index = new ClassScanner(new NestedJarClassLoader(packageUrl), className -> true).scan(List.of(PACKAGE_NAME), null);
+        assertEquals(List.of(ScanFixtures.Factories.class.getName(), ScanFixtures.Service.class.getName()),
+                     index.getComponents(PACKAGE_NAME));
+    }
+
+    @Test
+    void scanNestedJarWithAnEncodedName() throws IOException {
+        var innerJar = createJar(directory.resolve("inner.jar"));
+        var outerJar = directory.resolve("outer jar.jar");
+        try (var out = new JarOutputStream(Files.newOutputStream(outerJar))) {
+            out.putNextEntry(new JarEntry("lib/inner jar+1.jar"));
+            Files.copy(innerJar, out);
+            out.closeEntry();
+        }
+        var packageUrl = new URL("jar:" + outerJar.toUri() + "!/lib/inner%20jar+1.jar!/" + PACKAGE_NAME.replace('.', '/'));
+        var index = new ClassScanner(new NestedJarClassLoader(packageUrl), className -> true).scan(List.of(PACKAGE_NAME), null);
+        assertEquals(List.of(ScanFixtures.Factories.class.getName(), ScanFixtures.Service.class.getName()),
+                     index.getComponents(PACKAGE_NAME));
+    }
+
+    @Test
+    void indexedRootsAreNotScanned() throws IOException {
+        var indexed = directory.resolve("indexed");
+        var indexFile = indexed.resolve(ComponentIndex.LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, ScanFixtures.Service.class.getName());
+        Files.createDirectories(indexed.resolve(PACKAGE_NAME.replace('.', '/')));
+        var jar = createJar(directory.resolve("components.jar"));
+        try (var classLoader = new URLClassLoader(new URL[]{indexed.toUri().toURL(), jar.toUri().toURL()}, null)) {
+            var scanner = new ClassScanner(classLoader, className -> true, ComponentIndex.load(classLoader));
+            // the package is in both roots, only the root without index is scanned
+            var roots = scanner.getRoots(List.of(PACKAGE_NAME));
+            assertEquals(1, roots.size());
+            assertTrue(roots.iterator().next().getLocation().endsWith("components.jar"));
+            assertEquals(List.of(ScanFixtures.Factories.class.getName(), ScanFixtures.Service.class.getName()),
+                         scanner.scan(List.of(PACKAGE_NAME), null).getComponents(PACKAGE_NAME));
+        }
+    }
+
+    @Test
+    void missingPackageIsRejected() {
+        var scanner = new ClassScanner(getClass().getClassLoader(), className -> true);
+        var packageNames = List.of("com.kpouer.missing");
+        assertThrows(ComponentIocException.class, () -> scanner.scan(packageNames, null));
+    }
+
+    /**
+     * Create a jar containing the classes of the scanned package.
+     */
+    static Path createJar(Path jar) throws IOException {
+        try (var out = new JarOutputStream(Files.newOutputStream(jar))) {
+            var path = new StringBuilder();
+            for (var name : PACKAGE_NAME.split("\\.")) {
+                path.append(name).append('/');
+                out.putNextEntry(new JarEntry(path.toString()));
+                out.closeEntry();
+            }
+            for (var clazz : ScanFixtures.class.getDeclaredClasses()) {
+                out.putNextEntry(new JarEntry(clazz.getName().replace('.', '/') + ".class"));
+                copyClassFile(clazz, out);
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void copyClassFile(Class<?> clazz, OutputStream out) throws IOException {
+        var resource = clazz.getName().replace('.', '/') + ".class";
+        try (var in = clazz.getClassLoader().getResourceAsStream(resource)) {
+            assertNotNull(in, resource);
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * A class loader finding the package in a jar nested in another jar, like the launchers of executable jars.
+     */
+    private static final class NestedJarClassLoader extends ClassLoader {
+        private final URL packageUrl;
+
+        private NestedJarClassLoader(URL packageUrl) {
+            super(null);
+            this.packageUrl = packageUrl;
+        }
+
+        @Override
+        protected Enumeration<URL> findResources(String name) {
+            if (name.equals(PACKAGE_NAME.replace('.', '/'))) {
+                return Collections.enumeration(List.of(packageUrl));
+            }
+            return Collections.emptyEnumeration();
+        }
+    }
+}
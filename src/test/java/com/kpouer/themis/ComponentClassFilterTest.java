@@ -0,0 +1,122 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.annotation.Component;
+import jakarta.annotation.PostConstruct;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ComponentClassFilterTest {
+    @Test
+    void componentClass() throws IOException {
+        assertEquals(ComponentClassFilter.COMPONENT, ComponentClassFilter.read(getClassFile(Annotated.class)));
+    }
+
+    @Test
+    void componentClassWithAttributes() throws IOException {
+        assertEquals(ComponentClassFilter.COMPONENT, ComponentClassFilter.read(getClassFile(AnnotatedWithAttributes.class)));
+    }
+
+    @Test
+    void componentClassWithFactoryMethods() throws IOException {
+        assertEquals(ComponentClassFilter.COMPONENT | ComponentClassFilter.FACTORIES,
+                     ComponentClassFilter.read(getClassFile(Factory.class)));
+    }
+
+    @Test
+    void factoryMethodsOnly() throws IOException {
+        assertEquals(ComponentClassFilter.FACTORIES, ComponentClassFilter.read(getClassFile(FactoryMethodsOnly.class)));
+    }
+
+    @Test
+    void otherAnnotations() throws IOException {
+        assertEquals(0, ComponentClassFilter.read(getClassFile(OtherAnnotations.class)));
+    }
+
+    @Test
+    void plainClass() throws IOException {
+        assertEquals(0, ComponentClassFilter.read(getClassFile(ComponentClassFilterTest.class)));
+    }
+
+    @Test
+    void notAClassFile() {
+        assertEquals(ComponentClassFilter.COMPONENT | ComponentClassFilter.FACTORIES,
+                     ComponentClassFilter.read("not a class file".getBytes()));
+    }
+
+    @Test
+    void truncatedClassFile() throws IOException {
+        var classFile = getClassFile(Annotated.class);
+        assertEquals(ComponentClassFilter.COMPONENT | ComponentClassFilter.FACTORIES,
+                     ComponentClassFilter.read(Arrays.copyOf(classFile, classFile.length / 2)));
+    }
+
+    private static byte[] getClassFile(Class<?> clazz) throws IOException {
+        var name = clazz.getName();
+        try (var stream = clazz.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            return stream.readAllBytes();
+        }
+    }
+
+    @Component
+    public static class Annotated {
+    }
+
+    /**
+     * The long and double constants take two entries of the constant pool.
+     */
+    @Deprecated
+    @Component(value = "named", singleton = false, lazy = false)
+    public static class AnnotatedWithAttributes {
+        public static final long LONG = 1234567890123L;
+        public static final double DOUBLE = 3.14159;
+        private final String text = "text";
+
+        @Override
+        public String toString() {
+            return text + LONG + DOUBLE;
+        }
+    }
+
+    @Component
+    public static class Factory {
+        @Component
+        public String text() {
+            return "text";
+        }
+    }
+
+    public static class FactoryMethodsOnly {
+        @Component("number")
+        public Integer number() {
+            return 1;
+        }
+    }
+
+    @Deprecated
+    public static class OtherAnnotations {
+        @PostConstruct
+        public void init() {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentDefinitionTest {
+    private static final int THREADS = 16;
+
+    @Test
+    void concurrentFirstAccessCreatesOneSingleton() throws Exception {
+        var creations = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var definition = newDefinition("service", () -> {
+            creations.incrementAndGet();
+            sleep(50);
+            return new Object();
+        });
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var futures = new ArrayList<Future<Object>>();
+            for (var i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return definition.getInstance();
+                }));
+            }
+            start.countDown();
+            var instance = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (var future : futures) {
+                assertSame(instance, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, creations.get());
+            assertNotEquals(0, definition.getCreationIndex());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedCreationIsAttemptedAgain() {
+        var attempts = new AtomicInteger();
+        var definition = newDefinition("flaky", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first attempt");
+            }
+            return "created";
+        });
+        assertThrows(IllegalStateException.class, definition::getInstance);
+        assertEquals("created", definition.getInstance());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void circularDependencyInOneThread() {
+        var definitions = new ArrayList<ComponentDefinition<Object>>();
+        definitions.add(newDefinition("a", () -> definitions.get(1).getInstance()));
+        definitions.add(newDefinition("b", () -> definitions.get(0).getInstance()));
+        var exception = assertThrows(ComponentIocException.class, () -> definitions.get(0).getInstance());
+        assertEquals("Circular dependency detected a -> b -> a", exception.getMessage());
+    }
+
+    @Test
+    void deadlockBetweenTwoThreadsIsReported() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            var bothStarted = new CountDownLatch(2);
+            var definitions = new ArrayList<ComponentDefinition<Object>>();
+            definitions.add(newDefinition("a", () -> {
+                await(bothStarted);
+                return definitions.get(1).getInstance();
+            }));
+            definitions.add(newDefinition("b", () -> {
+                await(bothStarted);
+                return definitions.get(0).getInstance();
+            }));
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                var futureA = executor.submit(() -> definitions.get(0).getInstance());
+                var futureB = executor.submit(() -> definitions.get(1).getInstance());
+                var failures = new ArrayList<Throwable>();
+                for (var future : List.of(futureA, futureB)) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        failures.add(e.getCause());
+                    }
+                }
+                // the thread detecting the deadlock fails, the other one fails with it since its dependency failed
+                assertEquals(2, failures.size());
+                assertTrue(failures.stream().anyMatch(failure -> failure.getMessage().startsWith("Deadlock detected")),
+                           failures::toString);
+            } finally {
+                executor.shutdownNow();
+            }
+        });
+    }
+
+    private static ComponentDefinition<Object> newDefinition(String name, Creator<Object> creator) {
+        var definition = new ComponentDefinition<>(Object.class, true, true, creator);
+        definition.setName(name);
+        return definition;
+    }
+
+    private static void await(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.scan.ScanFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentIndexTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void noIndex() throws IOException {
+        try (var classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, null)) {
+            assertNull(ComponentIndex.load(classLoader));
+        }
+    }
+
+    @Test
+    void indexEntries() throws IOException {
+        var index = load(writeIndex(directory.resolve("first"),
+                                    "# generated",
+                                    "",
+                                    ScanFixtures.Service.class.getName(),
+                                    ScanFixtures.Factories.class.getName(),
+                                    ScanFixtures.Factories.class.getName() + "#name com.kpouer.themis.scan.NameCreator"));
+        assertEquals(2, index.size());
+        assertEquals(List.of(ScanFixtures.Service.class.getName(), ScanFixtures.Factories.class.getName()),
+                     index.getComponents(ScanFixtures.class.getPackageName()));
+        assertTrue(index.mayDeclareFactories(ScanFixtures.Factories.class));
+        assertFalse(index.mayDeclareFactories(ScanFixtures.Service.class));
+        assertTrue(index.mayDeclareFactories(ScanFixtures.Plain.class), "a class unknown to the index may declare factories");
+    }
+
+    @Test
+    void generatedCreators() throws Exception {
+        var index = load(writeIndex(directory.resolve("first"),
+                                    ScanFixtures.Factories.class.getName() + " com.kpouer.themis.scan.FactoriesCreator",
+                                    ScanFixtures.Factories.class.getName() + "#name com.kpouer.themis.scan.NameCreator"));
+        assertEquals("com.kpouer.themis.scan.FactoriesCreator", index.getCreator(ScanFixtures.Factories.class));
+        assertEquals("com.kpouer.themis.scan.NameCreator", index.getCreator(ScanFixtures.Factories.class.getMethod("name")));
+        assertNull(index.getCreator(ScanFixtures.Service.class));
+    }
+
+    @Test
+    void indexesOfAllTheRootsAreMerged() throws IOException {
+        var first = writeIndex(directory.resolve("first"), ScanFixtures.Service.class.getName());
+        var second = writeIndex(directory.resolve("second"), "com.kpouer.other.Repository");
+        try (var classLoader = new URLClassLoader(new URL[]{first.toUri().toURL(), second.toUri().toURL()}, null)) {
+            var index = ComponentIndex.load(classLoader);
+            assertNotNull(index);
+            assertEquals(2, index.size());
+            assertEquals(List.of("com.kpouer.other.Repository"), index.getComponents("com.kpouer.other"));
+            assertTrue(index.isIndexed(first.toUri().toString()));
+            assertTrue(index.isIndexed(second.toUri().toString()));
+            assertFalse(index.isIndexed(directory.toUri().toString()));
+        }
+    }
+
+    @Test
+    void containsPackage() throws IOException {
+        var index = load(writeIndex(directory.resolve("first"), ScanFixtures.Service.class.getName()));
+        assertTrue(index.containsPackage("com.kpouer.themis"));
+        assertTrue(index.containsPackage(ScanFixtures.class.getPackageName()));
+        assertFalse(index.containsPackage("com.kpouer.themis.scan.other"));
+        assertFalse(index.containsPackage("com.kpouer.them"));
+    }
+
+    private static Path writeIndex(Path root, String... lines) throws IOException {
+        var file = root.resolve(ComponentIndex.LOCATION);
+        Files.createDirectories(file.getParent());
+        Files.write(file, List.of(lines));
+        return root;
+    }
+
+    private static ComponentIndex load(Path root) throws IOException {
+        try (var classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()}, null)) {
+            var index = ComponentIndex.load(classLoader);
+            assertNotNull(index);
+            return index;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.annotation.PoolReset;
+import com.kpouer.themis.annotation.Pooled;
+import jakarta.annotation.PreDestroy;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentPoolTest {
+    @Test
+    void invalidSize() {
+        assertThrows(ComponentIocException.class, () -> newPool(Invalid.class, new AtomicInteger()));
+    }
+
+    @Test
+    void prefilledOnFirstUse() {
+        var creations = new AtomicInteger();
+        var pool = newPool(Prefilled.class, creations);
+        assertEquals(0, creations.get());
+        var instance = pool.acquire();
+        pool.release(instance);
+        assertEquals(2, creations.get());
+        assertEquals(new ComponentPool.Statistics(2, 2, 0, 2, 0, 1, 0, 0), pool.getStatistics());
+    }
+
+    @Test
+    void instancesAreReusedAndReset() {
+        var pool = newPool(Limited.class, new AtomicInteger());
+        PoolInstance instance;
+        try (var borrowed = pool.borrow()) {
+            instance = borrowed.get();
+        }
+        assertEquals(1, instance.resets);
+        try (var borrowed = pool.borrow()) {
+            assertSame(instance, borrowed.get());
+        }
+        assertEquals(2, instance.resets);
+    }
+
+    @Test
+    void borrowerTimesOutWhenAllInstancesAreBorrowed() {
+        var creations = new AtomicInteger();
+        var pool = newPool(Limited.class, creations);
+        var instances = new HashSet<PoolInstance>();
+        instances.add(pool.acquire());
+        instances.add(pool.acquire());
+        assertEquals(2, instances.size());
+        var start = System.nanoTime();
+        assertThrows(ComponentIocException.class, pool::acquire);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        var statistics = pool.getStatistics();
+        assertEquals(2, creations.get());
+        assertEquals(2, statistics.active());
+        assertEquals(1, statistics.waited());
+        assertEquals(1, statistics.timeouts());
+    }
+
+    @Test
+    void waitingBorrowerGetsTheReturnedInstance() throws Exception {
+        var pool = newPool(Single.class, new AtomicInteger());
+        var instance = pool.acquire();
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var waiting = new CountDownLatch(1);
+            var future = executor.submit(() -> {
+                waiting.countDown();
+                return pool.acquire();
+            });
+            waiting.await();
+            while (pool.getStatistics().waited() == 0) {
+                Thread.sleep(1);
+            }
+            pool.release(instance);
+            assertSame(instance, future.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void idleInstancesAreEvicted() throws InterruptedException {
+        var pool = newPool(Evicted.class, new AtomicInteger());
+        var first = pool.acquire();
+        var second = pool.acquire();
+        var third = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        Thread.sleep(100);
+        var instance = pool.acquire();
+        // the two oldest idle instances are destroyed, the min instance is kept
+        assertSame(third, instance);
+        assertTrue(first.destroyed);
+        assertTrue(second.destroyed);
+        assertFalse(third.destroyed);
+        var statistics = pool.getStatistics();
+        assertEquals(1, statistics.size());
+        assertEquals(2, statistics.destroyed());
+    }
+
+    @Test
+    void closeDestroysIdleAndReturnedInstances() {
+        var pool = newPool(Limited.class, new AtomicInteger());
+        var idle = pool.acquire();
+        var borrowed = pool.acquire();
+        pool.release(idle);
+        pool.close();
+        assertTrue(idle.destroyed);
+        assertFalse(borrowed.destroyed);
+        pool.release(borrowed);
+        assertTrue(borrowed.destroyed);
+        assertThrows(ComponentIocException.class, pool::acquire);
+        assertEquals(0, pool.getStatistics().size());
+    }
+
+    @Test
+    void foreignInstanceIsRejected() {
+        var pool = newPool(Limited.class, new AtomicInteger());
+        assertThrows(ComponentIocException.class, () -> pool.release(new PoolInstance()));
+        assertEquals(0, pool.getStatistics().idle());
+    }
+
+    @Test
+    void doubleReleaseIsRejected() {
+        var pool = newPool(Limited.class, new AtomicInteger());
+        var instance = pool.acquire();
+        pool.release(instance);
+        assertThrows(ComponentIocException.class, () -> pool.release(instance));
+        assertEquals(1, instance.resets);
+        assertEquals(new ComponentPool.Statistics(1, 1, 0, 1, 0, 1, 0, 0), pool.getStatistics());
+    }
+
+    @Test
+    void failedCreationFreesTheSlot() {
+        var attempts = new AtomicInteger();
+        var pool = new ComponentPool<>("single", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first attempt");
+            }
+            return new PoolInstance();
+        }, Single.class.getAnnotation(Pooled.class));
+        assertThrows(IllegalStateException.class, pool::acquire);
+        assertNotNull(pool.acquire());
+        assertEquals(1, pool.getStatistics().size());
+    }
+
+    private static ComponentPool<PoolInstance> newPool(Class<?> fixture, AtomicInteger creations) {
+        return new ComponentPool<>(fixture.getSimpleName(), () -> {
+            creations.incrementAndGet();
+            return new PoolInstance();
+        }, fixture.getAnnotation(Pooled.class));
+    }
+
+    public static class PoolInstance {
+        private int resets;
+        private boolean destroyed;
+
+        @PoolReset
+        public void reset() {
+            resets++;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            destroyed = true;
+        }
+    }
+
+    @Pooled(min = 3, max = 2)
+    private static class Invalid {
+    }
+
+    @Pooled(min = 2, max = 4)
+    private static class Prefilled {
+    }
+
+    @Pooled(max = 2, maxWait = 100)
+    private static class Limited {
+    }
+
+    @Pooled(max = 1)
+    private static class Single {
+    }
+
+    @Pooled(min = 1, max = 3, idleTimeout = 50)
+    private static class Evicted {
+    }
+}
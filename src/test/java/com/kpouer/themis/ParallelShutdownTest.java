@@ -0,0 +1,140 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import jakarta.annotation.PreDestroy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelShutdownTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final List<String> destroyed = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void dependentsAreDestroyedFirst() {
+        var repository = newDefinition("repository");
+        var cache = newDefinition("cache");
+        var service = newDefinition("service", repository, cache);
+        var controller = newDefinition("controller", service);
+        var scheduler = newDefinition("scheduler", repository);
+        var definitions = List.<ComponentDefinition<?>>of(repository, cache, service, controller, scheduler);
+        createAll(controller, scheduler);
+        ParallelShutdown.stop(definitions, executor);
+        assertEquals(5, destroyed.size());
+        assertTrue(destroyed.indexOf("controller") < destroyed.indexOf("service"));
+        assertTrue(destroyed.indexOf("service") < destroyed.indexOf("repository"));
+        assertTrue(destroyed.indexOf("service") < destroyed.indexOf("cache"));
+        assertTrue(destroyed.indexOf("scheduler") < destroyed.indexOf("repository"));
+    }
+
+    @Test
+    void singletonsAreDestroyedInReverseCreationOrderByTheCallingThread() {
+        var repository = newDefinition("repository");
+        var service = newDefinition("service", repository);
+        var controller = newDefinition("controller", service);
+        createAll(controller);
+        ParallelShutdown.stop(List.<ComponentDefinition<?>>of(controller, repository, service), null);
+        assertEquals(List.of("controller", "service", "repository"), destroyed);
+    }
+
+    @Test
+    void singletonsNotCreatedAreNotDestroyed() {
+        var created = newDefinition("created");
+        var lazy = newDefinition("lazy");
+        createAll(created);
+        ParallelShutdown.stop(List.<ComponentDefinition<?>>of(created, lazy), executor);
+        assertEquals(List.of("created"), destroyed);
+    }
+
+    @Test
+    void unknownDependenciesAreDestroyedBeforeEarlierSingletons() {
+        var repository = newDefinition("repository");
+        var generated = new ComponentDefinition<Object>(Object.class, true, false, () -> new Destroyable("generated", destroyed));
+        generated.setName("generated");
+        var independent = newDefinition("independent");
+        createAll(repository, generated, independent);
+        ParallelShutdown.stop(List.<ComponentDefinition<?>>of(repository, generated, independent), executor);
+        assertEquals(3, destroyed.size());
+        assertTrue(destroyed.indexOf("generated") < destroyed.indexOf("repository"));
+    }
+
+    @Test
+    void failuresDontStopTheShutdown() {
+        var repository = newDefinition("repository");
+        var broken = TestCreator.newDefinition("broken", () -> {
+            repository.getInstance();
+            return new Broken();
+        }, repository);
+        var controller = newDefinition("controller", broken);
+        createAll(controller);
+        var exception = assertThrows(ComponentIocException.class,
+                                     () -> ParallelShutdown.stop(List.<ComponentDefinition<?>>of(repository, broken, controller), executor));
+        assertTrue(exception.getMessage().startsWith("Unable to destroy 1 of 3 singletons: broken ("), exception.getMessage());
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals(List.of("controller", "repository"), destroyed);
+    }
+
+    private ComponentDefinition<Object> newDefinition(String name, ComponentDefinition<?>... dependencies) {
+        return TestCreator.newDefinition(name, () -> {
+            for (var dependency : dependencies) {
+                dependency.getInstance();
+            }
+            return new Destroyable(name, destroyed);
+        }, dependencies);
+    }
+
+    private static void createAll(ComponentDefinition<?>... definitions) {
+        for (var definition : definitions) {
+            definition.getInstance();
+        }
+    }
+
+    public static class Destroyable {
+        private final String name;
+        private final List<String> destroyed;
+
+        public Destroyable(String name, List<String> destroyed) {
+            this.name = name;
+            this.destroyed = destroyed;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            destroyed.add(name);
+        }
+    }
+
+    public static class Broken {
+        @PreDestroy
+        public void destroy() {
+            throw new IllegalStateException("broken");
+        }
+    }
+}
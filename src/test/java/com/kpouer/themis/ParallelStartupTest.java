@@ -0,0 +1,100 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelStartupTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final List<String> created = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void dependenciesAreCreatedFirst() {
+        var repository = newDefinition("repository");
+        var cache = newDefinition("cache");
+        var service = newDefinition("service", repository, cache);
+        var controller = newDefinition("controller", service);
+        var scheduler = newDefinition("scheduler", repository);
+        ParallelStartup.start(DependencyGraph.of(List.of(controller, scheduler)), definition -> true, executor);
+        assertEquals(5, created.size());
+        assertTrue(created.indexOf("repository") < created.indexOf("service"));
+        assertTrue(created.indexOf("cache") < created.indexOf("service"));
+        assertTrue(created.indexOf("service") < created.indexOf("controller"));
+        assertTrue(created.indexOf("repository") < created.indexOf("scheduler"));
+    }
+
+    @Test
+    void filteredDefinitionsAreOnlyWaitedFor() {
+        var prototype = newDefinition("prototype");
+        var service = newDefinition("service", prototype);
+        ParallelStartup.start(DependencyGraph.of(List.of(service)), definition -> definition != prototype, executor);
+        assertEquals(List.of("service"), created);
+    }
+
+    @Test
+    void failureIsReportedAndDependentsAreNotCreated() {
+        var failure = new IllegalStateException("broken");
+        var broken = TestCreator.newDefinition("broken", () -> {
+            throw failure;
+        });
+        var dependent = newDefinition("dependent", broken);
+        var independent = newDefinition("independent");
+        var graph = DependencyGraph.of(List.of(dependent, independent));
+        var exception = assertThrows(ComponentIocException.class, () -> ParallelStartup.start(graph, definition -> true, executor));
+        assertEquals("Unable to create 1 of 3 eager components, their dependent components were not created: " +
+                     "broken (java.lang.IllegalStateException: broken)", exception.getMessage());
+        assertArrayEquals(new Throwable[]{failure}, exception.getSuppressed());
+        assertEquals(List.of("independent"), created);
+        assertEquals(0, dependent.getCreationIndex());
+        assertNotEquals(0, independent.getCreationIndex());
+    }
+
+    @Test
+    void allFailuresAreCollected() {
+        var first = TestCreator.newDefinition("first", () -> {
+            throw new IllegalStateException("first");
+        });
+        var second = TestCreator.newDefinition("second", () -> {
+            throw new IllegalArgumentException("second");
+        });
+        var graph = DependencyGraph.of(List.of(first, second));
+        var exception = assertThrows(ComponentIocException.class, () -> ParallelStartup.start(graph, definition -> true, executor));
+        assertTrue(exception.getMessage().startsWith("Unable to create 2 of 2 eager components"), exception.getMessage());
+        assertEquals(2, exception.getSuppressed().length);
+    }
+
+    private ComponentDefinition<Object> newDefinition(String name, ComponentDefinition<?>... dependencies) {
+        return TestCreator.newDefinition(name, () -> {
+            created.add(name);
+            return name;
+        }, dependencies);
+    }
+}
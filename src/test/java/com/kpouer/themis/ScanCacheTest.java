@@ -0,0 +1,112 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.scan.ScanFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.kpouer.themis.ClassScannerTest.PACKAGE_NAME;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanCacheTest {
+    private static final List<String> COMPONENTS = List.of(ScanFixtures.Factories.class.getName(), ScanFixtures.Service.class.getName());
+
+    @TempDir
+    Path directory;
+    private Path cacheFile;
+    private URLClassLoader classLoader;
+    private ClassScanner scanner;
+    private ClassScanner.Root root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cacheFile = directory.resolve("themis-scan.cache");
+        var jar = ClassScannerTest.createJar(directory.resolve("components.jar"));
+        classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null);
+        scanner = new ClassScanner(classLoader, className -> true);
+        root = scanner.getRoots(List.of(PACKAGE_NAME)).iterator().next();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        classLoader.close();
+    }
+
+    @Test
+    void scannedRootsAreSaved() throws IOException {
+        var cache = ScanCache.load(cacheFile);
+        assertEquals(COMPONENTS, scanner.scan(List.of(PACKAGE_NAME), cache).getComponents(PACKAGE_NAME));
+        cache.save();
+
+        var classes = ScanCache.load(cacheFile).get(root.getKey(), root.getFingerprint());
+        assertNotNull(classes);
+        assertEquals(COMPONENTS, classes.stream().map(ScanCache.ScannedClass::className).sorted().toList());
+    }
+
+    @Test
+    void unchangedRootIsNotScanned() throws IOException {
+        writeCache(root.getFingerprint(), "com.kpouer.themis.scan.Cached");
+        var index = scanner.scan(List.of(PACKAGE_NAME), ScanCache.load(cacheFile));
+        assertEquals(List.of("com.kpouer.themis.scan.Cached"), index.getComponents(PACKAGE_NAME));
+    }
+
+    @Test
+    void changedRootIsScannedAgain() throws IOException {
+        writeCache("0:0", "com.kpouer.themis.scan.Cached");
+        var cache = ScanCache.load(cacheFile);
+        assertEquals(COMPONENTS, scanner.scan(List.of(PACKAGE_NAME), cache).getComponents(PACKAGE_NAME));
+        cache.save();
+
+        assertNull(ScanCache.load(cacheFile).get(root.getKey(), "0:0"));
+        assertNotNull(ScanCache.load(cacheFile).get(root.getKey(), root.getFingerprint()));
+    }
+
+    @Test
+    void corruptedCacheIsIgnored() throws IOException {
+        Files.writeString(cacheFile, "R\t" + root.getKey() + '\t' + root.getFingerprint() + "\nC\tcom.kpouer.themis.scan.Cached\tcorrupted\n");
+        var cache = ScanCache.load(cacheFile);
+        assertNull(cache.get(root.getKey(), root.getFingerprint()));
+        assertEquals(COMPONENTS, scanner.scan(List.of(PACKAGE_NAME), cache).getComponents(PACKAGE_NAME));
+        cache.save();
+
+        assertNotNull(ScanCache.load(cacheFile).get(root.getKey(), root.getFingerprint()));
+    }
+
+    @Test
+    void unwritableCacheIsIgnored() throws IOException {
+        var cache = ScanCache.load(directory.resolve("missing").resolve("themis-scan.cache"));
+        assertEquals(COMPONENTS, scanner.scan(List.of(PACKAGE_NAME), cache).getComponents(PACKAGE_NAME));
+        assertDoesNotThrow(cache::save);
+    }
+
+    private void writeCache(String fingerprint, String className) throws IOException {
+        var lines = List.of("R\t" + root.getKey() + '\t' + fingerprint, "C\t" + className + '\t' + ComponentClassFilter.COMPONENT);
+        Files.write(cacheFile, lines, StandardCharsets.UTF_8);
+    }
+}
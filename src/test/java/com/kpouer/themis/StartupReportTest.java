@@ -0,0 +1,81 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupReportTest {
+    @Test
+    void criticalPathFollowsTheLongestOwnCreationTimes() {
+        var report = new StartupReport(new ArrayList<>(List.of(entry("controller", 0, 50, 40, "service", "cache"),
+                                                               entry("service", 1, 40, 10, "repository"),
+                                                               entry("repository", 2, 10, 0),
+                                                               entry("cache", 3, 15, 0))));
+        assertEquals(List.of("controller", "service", "repository"), getNames(report.getCriticalPath()));
+        assertEquals(Duration.ofMillis(50), report.getCriticalPathDuration());
+    }
+
+    @Test
+    void entriesAreSortedByStart() {
+        var report = new StartupReport(new ArrayList<>(List.of(entry("second", 5, 1, 0), entry("first", 1, 1, 0))));
+        assertEquals(List.of("first", "second"), getNames(report.getEntries()));
+    }
+
+    @Test
+    void slowestComponentsComparesTheirOwnCreationTimes() {
+        var report = new StartupReport(new ArrayList<>(List.of(entry("controller", 0, 50, 45, "service"),
+                                                               entry("service", 1, 45, 0),
+                                                               entry("cache", 3, 20, 0))));
+        assertEquals(List.of("service", "cache"), getNames(report.getSlowest(2)));
+    }
+
+    @Test
+    void emptyReport() {
+        var report = new StartupReport(new ArrayList<>());
+        assertTrue(report.getCriticalPath().isEmpty());
+        assertEquals(Duration.ZERO, report.getCriticalPathDuration());
+    }
+
+    @Test
+    void jsonEscapesTheNames() {
+        var report = new StartupReport(new ArrayList<>(List.of(entry("quote\"d", 0, 1, 0))));
+        var json = report.toJson();
+        assertTrue(json.contains("\"criticalPath\": [\"quote\\\"d\"]"), json);
+        assertTrue(json.contains("\"ownNanos\": 1000000"), json);
+    }
+
+    private static StartupReport.Entry entry(String name, long start, long duration, long dependencies, String... dependencyNames) {
+        return new StartupReport.Entry(name,
+                                       "com.kpouer." + name,
+                                       "main",
+                                       Duration.ofMillis(start),
+                                       Duration.ofMillis(duration),
+                                       Duration.ofMillis(dependencies),
+                                       List.of(dependencyNames));
+    }
+
+    private static List<String> getNames(List<StartupReport.Entry> entries) {
+        return entries.stream().map(StartupReport.Entry::name).toList();
+    }
+}
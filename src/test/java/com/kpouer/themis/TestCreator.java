@@ -0,0 +1,64 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A creator with known dependencies, like the creators of the scanned components.
+ *
+ * @author Matthieu Casanova
+ */
+final class TestCreator extends AbstractCreator<Object> {
+    private final Supplier<Object> supplier;
+    private final List<ComponentDefinition<?>> dependencies;
+
+    private TestCreator(Supplier<Object> supplier, List<ComponentDefinition<?>> dependencies) {
+        super(null);
+        this.supplier = supplier;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Returns a singleton definition created by a supplier.
+     *
+     * @param name         the name of the component
+     * @param supplier     the supplier creating the instance
+     * @param dependencies the dependencies of the component
+     * @return the definition
+     */
+    static ComponentDefinition<Object> newDefinition(String name,
+                                                     Supplier<Object> supplier,
+                                                     ComponentDefinition<?>... dependencies) {
+        var definition = new ComponentDefinition<>(Object.class, true, false, new TestCreator(supplier, Arrays.asList(dependencies)));
+        definition.setName(name);
+        return definition;
+    }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public Object create() {
+        return supplier.get();
+    }
+}
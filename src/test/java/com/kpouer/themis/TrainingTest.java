@@ -0,0 +1,67 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingTest {
+    @Test
+    void classListIsWrittenByAContainerRun() {
+        var options = Training.Options.parse("--class-list", "app.classlist", "com.kpouer.app", "com.kpouer.lib");
+        assertEquals(List.of("-XX:DumpLoadedClassList=" + Path.of("app.classlist").toAbsolutePath(),
+                             "-Dthemis.training.run=true",
+                             Training.class.getName(),
+                             "com.kpouer.app",
+                             "com.kpouer.lib"),
+                     options.getClassListCommand());
+        assertNull(options.archive());
+    }
+
+    @Test
+    void classListHasADefaultLocation() {
+        var options = Training.Options.parse("com.kpouer.app");
+        assertEquals(Path.of("themis.classlist"), options.classList());
+    }
+
+    @Test
+    void archiveIsDumpedFromTheClassList() {
+        var options = Training.Options.parse("--archive", "app.jsa", "--class-list", "app.classlist", "com.kpouer.app");
+        assertEquals(List.of("-Xshare:dump",
+                             "-XX:SharedClassListFile=" + Path.of("app.classlist").toAbsolutePath(),
+                             "-XX:SharedArchiveFile=" + Path.of("app.jsa").toAbsolutePath()),
+                     options.getArchiveCommand());
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, Training.Options::parse);
+        assertThrows(IllegalArgumentException.class, () -> Training.Options.parse("com.kpouer.app", "--archive"));
+    }
+
+    @Test
+    void runCreatesTheComponentsAndReportsTheFailures() {
+        var failures = Training.run("com.kpouer.themis.training");
+        assertEquals(1, failures.size(), failures.toString());
+        assertTrue(failures.get(0).startsWith("Unable to create broken: "), failures.get(0));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.async;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisConfiguration;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLookupTest {
+    private final AtomicInteger tasks = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Themis themis = new ThemisImpl(ThemisConfiguration.builder()
+                                                                    .packageName(AsyncLookupTest.class.getPackageName())
+                                                                    .asyncExecutor(command -> {
+                                                                        tasks.incrementAndGet();
+                                                                        executor.execute(command);
+                                                                    })
+                                                                    .build());
+
+    @AfterEach
+    void tearDown() {
+        themis.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void componentIsCreatedByTheAsyncExecutor() {
+        var service = themis.getComponentOfTypeAsync(Service.class).join();
+        assertSame(themis.getComponentOfType(Repository.class), service.repository);
+        assertSame(service, themis.getComponentOfType(Service.class));
+        assertTrue(tasks.get() > 0);
+    }
+
+    @Test
+    void existingSingletonIsCompleted() {
+        var service = themis.getComponentOfType(Service.class);
+        var future = themis.getComponentOfTypeAsync(Service.class);
+        assertTrue(future.isDone());
+        assertSame(service, future.join());
+    }
+
+    @Test
+    void factoryMethodReturningAFutureIsCompletedByIt() {
+        var connection = themis.getComponentOfTypeAsync("connection", Connection.class).join();
+        assertSame(themis.getComponentOfType(Repository.class), connection.repository);
+        assertSame(connection, themis.getComponentOfType("connection", Connection.class));
+    }
+
+    @Test
+    void synchronousLookupOfAFactoryMethodReturningAFutureEmitsACreationEvent() throws IOException {
+        Path file;
+        try (var recording = new Recording()) {
+            recording.enable("com.kpouer.themis.Creation");
+            recording.start();
+            themis.getComponentOfType("connection", Connection.class);
+            recording.stop();
+            file = Files.createTempFile("themis", ".jfr");
+            recording.dump(file);
+        }
+        try {
+            var factoryMethods = RecordingFile.readAllEvents(file)
+                                              .stream()
+                                              .map(event -> event.getString("factoryMethod"))
+                                              .toList();
+            assertTrue(factoryMethods.contains(Connections.class.getName() + ".connection"), factoryMethods.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void failureCompletesTheFutureExceptionally() {
+        var future = themis.getComponentOfTypeAsync(Broken.class);
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(ComponentIocException.class, exception.getCause());
+        assertInstanceOf(IllegalStateException.class, exception.getCause().getCause());
+    }
+
+    @Test
+    void unknownComponentCompletesTheFutureExceptionally() {
+        var future = themis.getComponentOfTypeAsync(Runnable.class);
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(ComponentIocException.class, exception.getCause());
+    }
+
+    @Component
+    public static class Repository {
+    }
+
+    @Component
+    public static class Service {
+        private final Repository repository;
+
+        public Service(Repository repository) {
+            this.repository = repository;
+        }
+    }
+
+    public static class Connection {
+        private final Repository repository;
+
+        Connection(Repository repository) {
+            this.repository = repository;
+        }
+    }
+
+    @Component
+    public static class Connections {
+        @Component("connection")
+        public CompletableFuture<Connection> connection(Repository repository) {
+            return CompletableFuture.supplyAsync(() -> new Connection(repository));
+        }
+    }
+
+    @Component
+    public static class Broken {
+        public Broken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.child;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisConfiguration;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.child.app.AppComponents;
+import com.kpouer.themis.child.plugin.PluginComponents;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChildContainerTest {
+    private final Themis parent = new ThemisImpl(AppComponents.class.getPackageName());
+
+    @AfterEach
+    void tearDown() {
+        parent.close();
+    }
+
+    @Test
+    void childUsesTheComponentsOfItsParent() {
+        try (var child = parent.createChild()) {
+            assertSame(parent.getComponentOfType(AppComponents.Repository.class),
+                       child.getComponentOfType(AppComponents.Repository.class));
+        }
+    }
+
+    @Test
+    void childComponentsHideTheComponentsOfTheParent() {
+        try (var child = createPluginChild()) {
+            var plugin = child.getComponentOfType(PluginComponents.Plugin.class);
+            assertSame(parent.getComponentOfType(AppComponents.Repository.class), plugin.getRepository());
+            assertEquals("plugin", plugin.getGreeter().greet());
+            assertEquals("plugin", child.getComponentOfType("greeter", AppComponents.Greeter.class).greet());
+            assertEquals("app", parent.getComponentOfType("greeter", AppComponents.Greeter.class).greet());
+        }
+    }
+
+    @Test
+    void parentDoesNotSeeTheComponentsOfItsChildren() {
+        try (var ignored = createPluginChild()) {
+            assertThrows(ComponentIocException.class, () -> parent.getComponentOfType(PluginComponents.Plugin.class));
+        }
+    }
+
+    @Test
+    void childrenHaveTheirOwnSingletons() {
+        try (var first = createPluginChild(); var second = createPluginChild()) {
+            assertNotSame(first.getComponentOfType(PluginComponents.Plugin.class),
+                          second.getComponentOfType(PluginComponents.Plugin.class));
+        }
+    }
+
+    @Test
+    void closingAChildOnlyDestroysItsComponents() {
+        PluginComponents.Plugin plugin;
+        try (var child = createPluginChild()) {
+            plugin = child.getComponentOfType(PluginComponents.Plugin.class);
+        }
+        assertTrue(plugin.isDestroyed());
+        assertNotNull(parent.getComponentOfType(AppComponents.Repository.class));
+    }
+
+    private Themis createPluginChild() {
+        return parent.createChild(ThemisConfiguration.builder()
+                                                     .packageName(PluginComponents.class.getPackageName())
+                                                     .build());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.child.plugin;
+
+import com.kpouer.themis.annotation.Component;
+import com.kpouer.themis.child.app.AppComponents;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The components of the child containers.
+ *
+ * @author Matthieu Casanova
+ */
+public final class PluginComponents {
+    private PluginComponents() {
+    }
+
+    @Component("greeter")
+    public static class PluginGreeter implements AppComponents.Greeter {
+        @Override
+        public String greet() {
+            return "plugin";
+        }
+    }
+
+    @Component
+    public static class Plugin {
+        private final AppComponents.Repository repository;
+        private final AppComponents.Greeter greeter;
+        private boolean destroyed;
+
+        public Plugin(AppComponents.Repository repository, AppComponents.Greeter greeter) {
+            this.repository = repository;
+            this.greeter = greeter;
+        }
+
+        public AppComponents.Repository getRepository() {
+            return repository;
+        }
+
+        public AppComponents.Greeter getGreeter() {
+            return greeter;
+        }
+
+        public boolean isDestroyed() {
+            return destroyed;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            destroyed = true;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.collection;
+
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectionInjectionTest {
+    private final Themis themis = new ThemisImpl(CollectionInjectionTest.class.getPackageName());
+
+    @AfterEach
+    void tearDown() {
+        themis.close();
+    }
+
+    @Test
+    void listReceivesAllTheComponents() {
+        var registry = themis.getComponentOfType(Registry.class);
+        assertEquals(Set.of(themis.getComponentOfType(CsvExporter.class), themis.getComponentOfType(PdfExporter.class)),
+                     Set.copyOf(registry.list));
+        assertThrows(UnsupportedOperationException.class, () -> registry.list.clear());
+    }
+
+    @Test
+    void collectionReceivesAllTheComponents() {
+        var registry = themis.getComponentOfType(Registry.class);
+        assertEquals(Set.copyOf(registry.list), Set.copyOf(registry.collection));
+    }
+
+    @Test
+    void mapReceivesTheComponentsByName() {
+        var registry = themis.getComponentOfType(Registry.class);
+        assertEquals(Set.of("csvexporter", "pdfexporter"), registry.map.keySet());
+        assertSame(themis.getComponentOfType(CsvExporter.class), registry.map.get("csvexporter"));
+    }
+
+    @Test
+    void singletonSnapshotIsReused() {
+        var components = themis.getComponentsOfType(Exporter.class);
+        assertEquals(2, components.size());
+        assertSame(components, themis.getComponentsOfType(Exporter.class));
+        assertSame(components, themis.getComponentOfType(Registry.class).map);
+    }
+
+    @Test
+    void prototypesAreCreatedForEachLookup() {
+        var first = themis.getComponentsOfType(Step.class);
+        var second = themis.getComponentsOfType(Step.class);
+        assertEquals(first.keySet(), second.keySet());
+        assertNotSame(first.get("step"), second.get("step"));
+    }
+
+    @Test
+    void missingTypeIsEmpty() {
+        assertTrue(themis.getComponentsOfType(Runnable.class).isEmpty());
+    }
+
+    public interface Exporter {
+    }
+
+    @Component
+    public static class CsvExporter implements Exporter {
+    }
+
+    @Component
+    public static class PdfExporter implements Exporter {
+    }
+
+    @Component(singleton = false)
+    public static class Step {
+    }
+
+    @Component
+    public static class Registry {
+        private final List<Exporter> list;
+        private final Collection<Exporter> collection;
+        private final Map<String, Exporter> map;
+
+        public Registry(List<Exporter> list, Collection<Exporter> collection, Map<String, Exporter> map) {
+            this.list = list;
+            this.collection = collection;
+            this.map = map;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.injection;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import com.kpouer.themis.annotation.Qualifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InjectionTest {
+    private final Themis themis = new ThemisImpl(InjectionTest.class.getPackageName());
+
+    @Test
+    void constructorArgumentsAreInjected() {
+        var service = themis.getComponentOfType(Service.class);
+        assertSame(themis.getComponentOfType(Repository.class), service.repository);
+        assertEquals("bonjour", service.greeter.greet());
+    }
+
+    @Test
+    void prototypeDependencyIsCreatedForEachInjection() {
+        var first = themis.getComponentOfType(Task.class);
+        var second = themis.getComponentOfType(Task.class);
+        assertNotSame(first, second);
+        assertNotEquals(first.counter.id, second.counter.id);
+        assertSame(first.repository, second.repository);
+    }
+
+    @Test
+    void factoryMethodArgumentsAreInjected() {
+        var greeting = themis.getComponentOfType("greeting", String.class);
+        assertEquals("hello world", greeting);
+    }
+
+    @Test
+    void unknownQualifierFallsBackToTheType() {
+        assertSame(themis.getComponentOfType(Repository.class), themis.getComponentOfType(Report.class).repository);
+    }
+
+    @Test
+    void missingDependencyIsReported() {
+        assertThrows(ComponentIocException.class, () -> themis.getComponentOfType(Broken.class));
+    }
+
+    @Component
+    public static class Repository {
+    }
+
+    public interface Greeter {
+        String greet();
+    }
+
+    @Component("english")
+    public static class EnglishGreeter implements Greeter {
+        @Override
+        public String greet() {
+            return "hello";
+        }
+    }
+
+    @Component("french")
+    public static class FrenchGreeter implements Greeter {
+        @Override
+        public String greet() {
+            return "bonjour";
+        }
+    }
+
+    @Component
+    public static class Service {
+        private final Repository repository;
+        private final Greeter greeter;
+
+        public Service(Repository repository, @Qualifier("french") Greeter greeter) {
+            this.repository = repository;
+            this.greeter = greeter;
+        }
+    }
+
+    @Component(singleton = false)
+    public static class Counter {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+        private final int id = COUNT.incrementAndGet();
+    }
+
+    @Component(singleton = false)
+    public static class Task {
+        private final Repository repository;
+        private final Counter counter;
+
+        public Task(Repository repository, Counter counter) {
+            this.repository = repository;
+            this.counter = counter;
+        }
+    }
+
+    @Component
+    public static class Report {
+        private final Repository repository;
+
+        public Report(@Qualifier("database") Repository repository) {
+            this.repository = repository;
+        }
+    }
+
+    @Component
+    public static class Broken {
+        public Broken(Runnable runnable) {
+        }
+    }
+
+    @Component
+    public static class Greetings {
+        @Component("greeting")
+        public String greeting(@Qualifier("english") Greeter greeter) {
+            return greeter.greet() + " world";
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.lazy;
+
+import com.kpouer.themis.Provider;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import com.kpouer.themis.annotation.Lazy;
+import jakarta.annotation.PreDestroy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyInjectionTest {
+    private static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+
+    private Themis themis;
+
+    @BeforeEach
+    void setUp() {
+        Exporter.CREATIONS.set(0);
+        DESTROYED.clear();
+        themis = new ThemisImpl(LazyInjectionTest.class.getPackageName());
+    }
+
+    @AfterEach
+    void tearDown() {
+        themis.close();
+    }
+
+    @Test
+    void providerCreatesTheComponentWhenCalled() {
+        var report = themis.getComponentOfType(Report.class);
+        assertEquals(0, Exporter.CREATIONS.get());
+        assertSame(themis.getComponentOfType(Exporter.class), report.exporter.get());
+        assertEquals(1, Exporter.CREATIONS.get());
+    }
+
+    @Test
+    void supplierOfPrototypeCreatesAnInstanceForEachCall() {
+        var report = themis.getComponentOfType(Report.class);
+        assertNotSame(report.sheet.get(), report.sheet.get());
+    }
+
+    @Test
+    void optionalIsEmptyWithoutComponent() {
+        var report = themis.getComponentOfType(Report.class);
+        assertTrue(report.optionalSheet.isPresent());
+        assertTrue(report.metrics.isEmpty());
+    }
+
+    @Test
+    void lazyProxyResolvesTheComponentOnFirstCall() {
+        var report = themis.getComponentOfType(Report.class);
+        var created = Exporter.CREATIONS.get();
+        assertEquals("exported", report.mailer.send());
+        assertEquals(created, Exporter.CREATIONS.get());
+        assertEquals(1, themis.getComponentOfType(DefaultMailer.class).calls);
+    }
+
+    @Test
+    void lazyProxyRethrowsTheExceptionOfTheComponent() {
+        var report = themis.getComponentOfType(Report.class);
+        var exception = assertThrows(IllegalStateException.class, () -> report.mailer.fail());
+        assertEquals("failed", exception.getMessage());
+    }
+
+    @Test
+    void lazyProxyPassesTheArguments() {
+        var report = themis.getComponentOfType(Report.class);
+        assertEquals("hello 2", report.mailer.format("hello", 2));
+        assertEquals("hello 3", report.mailer.format("hello", 3));
+    }
+
+    @Test
+    void referencedComponentsAreDestroyedAfterTheirUsers() {
+        var report = themis.getComponentOfType(Report.class);
+        // created after the report
+        report.exporter.get();
+        report.mailer.send();
+        themis.close();
+        assertTrue(DESTROYED.indexOf("report") < DESTROYED.indexOf("exporter"), DESTROYED.toString());
+        assertTrue(DESTROYED.indexOf("report") < DESTROYED.indexOf("mailer"), DESTROYED.toString());
+    }
+
+    @Component
+    public static class Exporter {
+        private static final AtomicInteger CREATIONS = new AtomicInteger();
+
+        public Exporter() {
+            CREATIONS.incrementAndGet();
+        }
+
+        @PreDestroy
+        public void destroy() {
+            DESTROYED.add("exporter");
+        }
+    }
+
+    @Component(singleton = false)
+    public static class Sheet {
+    }
+
+    public interface Metrics {
+    }
+
+    public interface Mailer {
+        String send();
+
+        void fail();
+
+        String format(String message, int count);
+    }
+
+    @Component
+    public static class DefaultMailer implements Mailer {
+        private int calls;
+
+        @Override
+        public String send() {
+            calls++;
+            return "exported";
+        }
+
+        @Override
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+
+        @Override
+        public String format(String message, int count) {
+            return message + ' ' + count;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            DESTROYED.add("mailer");
+        }
+    }
+
+    @Component
+    public static class Report {
+        private final Provider<Exporter> exporter;
+        private final Supplier<Sheet> sheet;
+        private final Optional<Metrics> metrics;
+        private final Optional<Sheet> optionalSheet;
+        private final Mailer mailer;
+
+        public Report(Provider<Exporter> exporter,
+                      Supplier<Sheet> sheet,
+                      Optional<Metrics> metrics,
+                      Optional<Sheet> optionalSheet,
+                      @Lazy Mailer mailer) {
+            this.exporter = exporter;
+            this.sheet = sheet;
+            this.metrics = metrics;
+            this.optionalSheet = optionalSheet;
+            this.mailer = mailer;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            DESTROYED.add("report");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.lookup;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeLookupTest {
+    private final Themis themis = new ThemisImpl(TypeLookupTest.class.getPackageName());
+
+    @Test
+    void componentIsFoundByItsClass() {
+        var repository = themis.getComponentOfType(Repository.class);
+        assertNotNull(repository);
+        assertSame(repository, themis.getComponentOfType(Repository.class));
+    }
+
+    @Test
+    void componentIsFoundByItsInterface() {
+        assertInstanceOf(Repository.class, themis.getComponentOfType(Storage.class));
+    }
+
+    @Test
+    void componentIsFoundByName() {
+        assertInstanceOf(EnglishGreeter.class, themis.getComponentOfType("english", Greeter.class));
+        assertInstanceOf(FrenchGreeter.class, themis.getComponentOfType("french", Greeter.class));
+    }
+
+    @Test
+    void ambiguousTypeRequiresAQualifier() {
+        var exception = assertThrows(ComponentIocException.class, () -> themis.getComponentOfType(Greeter.class));
+        assertTrue(exception.getMessage().startsWith("There are 2 beans of type " + Greeter.class), exception.getMessage());
+    }
+
+    @Test
+    void unknownTypeIsRejected() {
+        assertThrows(ComponentIocException.class, () -> themis.getComponentOfType(Runnable.class));
+    }
+
+    public interface Storage {
+    }
+
+    @Component
+    public static class Repository implements Storage {
+    }
+
+    public interface Greeter {
+    }
+
+    @Component("english")
+    public static class EnglishGreeter implements Greeter {
+    }
+
+    @Component("french")
+    public static class FrenchGreeter implements Greeter {
+    }
+}
@@ -0,0 +1,89 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.pool;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.ComponentPool;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisConfiguration;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import com.kpouer.themis.annotation.Pooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledComponentTest {
+    private final Themis themis = new ThemisImpl(ThemisConfiguration.builder()
+                                                                    .packageName(PooledComponentTest.class.getPackageName())
+                                                                    .metricsEnabled(true)
+                                                                    .build());
+
+    @AfterEach
+    void tearDown() {
+        themis.close();
+    }
+
+    @Test
+    void lookupIsRejected() {
+        assertThrows(ComponentIocException.class, () -> themis.getComponentOfType(Buffer.class));
+        assertTrue(themis.getComponentsOfType(Buffer.class).isEmpty());
+    }
+
+    @Test
+    void injectionIsRejected() {
+        assertThrows(ComponentIocException.class, () -> themis.getComponentOfType(BufferUser.class));
+    }
+
+    @Test
+    void poolIsInjected() {
+        var writer = themis.getComponentOfType(Writer.class);
+        assertSame(themis.getPool(Buffer.class), writer.pool);
+        try (var borrowed = writer.pool.borrow()) {
+            assertNotNull(borrowed.get());
+        }
+    }
+
+    @Test
+    void pooledCreationsAreMeasured() {
+        var pool = themis.getPool(Buffer.class);
+        pool.release(pool.acquire());
+        assertEquals(1, themis.getMetrics().get("buffer").getCreations());
+    }
+
+    @Component(singleton = false)
+    @Pooled(max = 2)
+    public static class Buffer {
+    }
+
+    @Component
+    public static class Writer {
+        private final ComponentPool<Buffer> pool;
+
+        public Writer(ComponentPool<Buffer> pool) {
+            this.pool = pool;
+        }
+    }
+
+    @Component
+    public static class BufferUser {
+        public BufferUser(Buffer buffer) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.profiler;
+
+import com.kpouer.themis.StartupReport;
+import com.kpouer.themis.ThemisConfiguration;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupProfilerTest {
+    @Test
+    void eagerComponentsAreRecorded() {
+        try (var themis = new ThemisImpl(ThemisConfiguration.builder()
+                                                            .packageName(StartupProfilerTest.class.getPackageName())
+                                                            .startupProfilerEnabled(true)
+                                                            .build())) {
+            var report = themis.getStartupReport();
+            var names = report.getEntries().stream().map(StartupReport.Entry::name).toList();
+            assertTrue(names.containsAll(List.of("controller", "slowservice", "fastservice")), names.toString());
+            var controller = report.getEntries().stream().filter(entry -> entry.name().equals("controller")).findFirst().orElseThrow();
+            assertEquals(List.of("slowservice", "fastservice"), controller.dependencyNames());
+            assertEquals(List.of("controller", "slowservice"),
+                         report.getCriticalPath().stream().map(StartupReport.Entry::name).toList());
+        }
+    }
+
+    @Test
+    void disabledProfilerReportsNothing() {
+        try (var themis = new ThemisImpl(StartupProfilerTest.class.getPackageName())) {
+            assertTrue(themis.getStartupReport().getEntries().isEmpty());
+        }
+    }
+
+    @Component
+    public static class SlowService {
+        public SlowService() throws InterruptedException {
+            Thread.sleep(50);
+        }
+    }
+
+    @Component
+    public static class FastService {
+    }
+
+    @Component(lazy = false)
+    public static class Controller {
+        public Controller(SlowService slowService, FastService fastService) {
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.ref;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentRefTest {
+    private final Themis themis = new ThemisImpl(ComponentRefTest.class.getPackageName());
+
+    @AfterEach
+    void tearDown() {
+        themis.close();
+    }
+
+    @Test
+    void singletonRefReturnsTheSingleton() {
+        var ref = themis.ref(Repository.class);
+        assertSame(themis.getComponentOfType(Repository.class), ref.get());
+        assertSame(ref.get(), ref.get());
+    }
+
+    @Test
+    void prototypeRefCreatesAnInstanceForEachCall() {
+        var ref = themis.ref(Task.class);
+        assertNotSame(ref.get(), ref.get());
+    }
+
+    @Test
+    void namedRef() {
+        assertInstanceOf(FastCodec.class, themis.ref("fast", Codec.class).get());
+        assertInstanceOf(SafeCodec.class, themis.ref("safe", Codec.class).get());
+    }
+
+    @Test
+    void unknownComponentIsRejected() {
+        assertThrows(ComponentIocException.class, () -> themis.ref(Runnable.class));
+        assertThrows(ComponentIocException.class, () -> themis.ref("unknown", Codec.class));
+    }
+
+    @Test
+    void ambiguousTypeIsRejected() {
+        assertThrows(ComponentIocException.class, () -> themis.ref(Codec.class));
+    }
+
+    @Component
+    public static class Repository {
+    }
+
+    @Component(singleton = false)
+    public static class Task {
+    }
+
+    public interface Codec {
+    }
+
+    @Component("fast")
+    public static class FastCodec implements Codec {
+    }
+
+    @Component("safe")
+    public static class SafeCodec implements Codec {
+    }
+}
@@ -0,0 +1,212 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.registration;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.Provider;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import jakarta.annotation.PreDestroy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistrationTest {
+    private final Themis themis = new ThemisImpl();
+
+    @AfterEach
+    void tearDown() {
+        themis.close();
+    }
+
+    @Test
+    void registerInstance() {
+        var repository = new Repository();
+        themis.registerComponent("repository", repository);
+        assertSame(repository, themis.getComponentOfType(Repository.class));
+    }
+
+    @Test
+    void registerClass() {
+        themis.registerComponent(Repository.class);
+        themis.registerComponent(Service.class);
+        var service = themis.getComponentOfType(Service.class);
+        assertSame(themis.getComponentOfType(Repository.class), service.repository);
+    }
+
+    @Test
+    void registerSupplier() {
+        themis.registerComponent("singleton", Repository.class, Repository::new, true);
+        themis.registerComponent("prototype", Repository.class, Repository::new, false);
+        assertSame(themis.getComponentOfType("singleton", Repository.class), themis.getComponentOfType("singleton", Repository.class));
+        assertNotSame(themis.getComponentOfType("prototype", Repository.class), themis.getComponentOfType("prototype", Repository.class));
+    }
+
+    @Test
+    void classWithoutAnnotationIsRejected() {
+        assertThrows(ComponentIocException.class, () -> themis.registerComponent(String.class));
+    }
+
+    @Test
+    void duplicateNameIsRejected() {
+        themis.registerComponent("repository", new Repository());
+        var repository = new Repository();
+        assertThrows(ComponentIocException.class, () -> themis.registerComponent("repository", repository));
+    }
+
+    @Test
+    void registeredComponentIsAddedToTheSnapshots() {
+        themis.registerComponent("first", new Repository());
+        assertEquals(1, themis.getComponentsOfType(Repository.class).size());
+        themis.registerComponent("second", new Repository());
+        assertEquals(2, themis.getComponentsOfType(Repository.class).size());
+    }
+
+    @Test
+    void unregisterDestroysTheCreatedSingleton() {
+        themis.registerComponent(Repository.class);
+        var repository = themis.getComponentOfType(Repository.class);
+        assertTrue(themis.unregisterComponent("repository"));
+        assertTrue(repository.destroyed);
+        assertThrows(ComponentIocException.class, () -> themis.getComponentOfType(Repository.class));
+        assertTrue(themis.getComponentsOfType(Repository.class).isEmpty());
+    }
+
+    @Test
+    void unregisterDoesNotDestroyARegisteredInstance() {
+        var repository = new Repository();
+        themis.registerComponent("repository", repository);
+        assertTrue(themis.unregisterComponent("repository"));
+        assertFalse(repository.destroyed);
+    }
+
+    @Test
+    void unregisterAlsoUnregistersTheFactoryMethodComponents() {
+        themis.registerComponent(Connections.class);
+        var connection = themis.getComponentOfType("connection", Repository.class);
+        assertTrue(themis.unregisterComponent("connections"));
+        assertTrue(connection.destroyed);
+        assertThrows(ComponentIocException.class, () -> themis.getComponentOfType("connection", Repository.class));
+    }
+
+    @Test
+    void reRegisteredComponentIsResolvedAgain() {
+        themis.registerComponent(Repository.class);
+        themis.registerComponent(Client.class);
+        var ref = themis.ref(Repository.class);
+        var client = themis.getComponentOfType(Client.class);
+        assertTrue(themis.unregisterComponent("repository"));
+        themis.registerComponent(Repository.class);
+        var repository = themis.getComponentOfType(Repository.class);
+        assertSame(repository, ref.get());
+        assertSame(repository, client.provider.get());
+        var newClient = themis.getComponentOfType(Client.class);
+        assertSame(repository, newClient.repository);
+        assertSame(repository, newClient.optional.orElseThrow());
+    }
+
+    @Test
+    void unregisterUnknownComponent() {
+        assertFalse(themis.unregisterComponent("unknown"));
+    }
+
+    @Test
+    void closedContainerIsRejected() {
+        themis.close();
+        assertThrows(ComponentIocException.class, () -> themis.registerComponent(Repository.class));
+        assertThrows(ComponentIocException.class, () -> themis.unregisterComponent("repository"));
+    }
+
+    @Test
+    void circularDependencyOfAnAsyncLookupIsCheckedAgainAfterARegistration() {
+        themis.registerComponent(PlainSource.class);
+        themis.registerComponent(Sink.class);
+        assertNotNull(themis.getComponentOfTypeAsync(Sink.class).join());
+        assertTrue(themis.unregisterComponent("plainSource"));
+        themis.registerComponent(LoopSource.class);
+        var future = themis.getComponentOfTypeAsync(Sink.class);
+        // the cycle is found before the creation is submitted
+        assertTrue(future.isCompletedExceptionally());
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertTrue(exception.getCause().getMessage().startsWith("Circular dependency"), exception.getCause().getMessage());
+    }
+
+    @Component
+    public static class Repository {
+        private boolean destroyed;
+
+        @PreDestroy
+        public void destroy() {
+            destroyed = true;
+        }
+    }
+
+    @Component
+    public static class Service {
+        private final Repository repository;
+
+        public Service(Repository repository) {
+            this.repository = repository;
+        }
+    }
+
+    @Component(singleton = false)
+    public static class Client {
+        private final Repository repository;
+        private final Provider<Repository> provider;
+        private final Optional<Repository> optional;
+
+        public Client(Repository repository, Provider<Repository> provider, Optional<Repository> optional) {
+            this.repository = repository;
+            this.provider = provider;
+            this.optional = optional;
+        }
+    }
+
+    @Component
+    public static class Connections {
+        @Component("connection")
+        public Repository connection() {
+            return new Repository();
+        }
+    }
+
+    public interface Source {
+    }
+
+    @Component
+    public static class PlainSource implements Source {
+    }
+
+    @Component
+    public static class LoopSource implements Source {
+        public LoopSource(Sink sink) {
+        }
+    }
+
+    @Component(singleton = false)
+    public static class Sink {
+        public Sink(Source source) {
+        }
+    }
+}
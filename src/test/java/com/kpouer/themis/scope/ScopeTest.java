@@ -0,0 +1,136 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.scope;
+
+import com.kpouer.themis.ComponentIocException;
+import com.kpouer.themis.Creator;
+import com.kpouer.themis.RequestScope;
+import com.kpouer.themis.Scope;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisConfiguration;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.ThreadScope;
+import com.kpouer.themis.annotation.Component;
+import jakarta.annotation.PreDestroy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopeTest {
+    private final TenantScope tenantScope = new TenantScope();
+    private final Themis themis = new ThemisImpl(ThemisConfiguration.builder()
+                                                                    .packageName(ScopeTest.class.getPackageName())
+                                                                    .scope(TenantScope.NAME, tenantScope)
+                                                                    .build());
+
+    @AfterEach
+    void tearDown() {
+        themis.close();
+    }
+
+    @Test
+    void threadScopedComponentIsCreatedOncePerThread() {
+        var state = themis.getComponentOfType(ThreadState.class);
+        assertSame(state, themis.getComponentOfType(ThreadState.class));
+        var otherState = CompletableFuture.supplyAsync(() -> themis.getComponentOfType(ThreadState.class)).join();
+        assertNotSame(state, otherState);
+    }
+
+    @Test
+    void threadScopedComponentIsDestroyedByClear() {
+        var state = themis.getComponentOfType(ThreadState.class);
+        ThreadScope.clear();
+        assertTrue(state.destroyed);
+        assertNotSame(state, themis.getComponentOfType(ThreadState.class));
+    }
+
+    @Test
+    void requestScopedComponentIsCreatedOncePerRequest() throws Exception {
+        var first = RequestScope.call(() -> {
+            var state = themis.getComponentOfType(RequestState.class);
+            assertSame(state, themis.getComponentOfType(RequestState.class));
+            return state;
+        });
+        var second = RequestScope.call(() -> themis.getComponentOfType(RequestState.class));
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void requestScopedComponentIsDestroyedAtTheEndOfTheRequest() throws Exception {
+        var state = RequestScope.call(() -> themis.getComponentOfType(RequestState.class));
+        assertTrue(state.destroyed);
+        assertFalse(RequestScope.isActive());
+    }
+
+    @Test
+    void requestScopedComponentRequiresARequest() {
+        assertThrows(ComponentIocException.class, () -> themis.getComponentOfType(RequestState.class));
+    }
+
+    @Test
+    void customScope() {
+        tenantScope.tenant = "first";
+        var first = themis.getComponentOfType(TenantState.class);
+        assertSame(first, themis.getComponentOfType(TenantState.class));
+        tenantScope.tenant = "second";
+        assertNotSame(first, themis.getComponentOfType(TenantState.class));
+        tenantScope.tenant = "first";
+        assertSame(first, themis.getComponentOfType(TenantState.class));
+    }
+
+    @Component(scope = ThreadScope.NAME)
+    public static class ThreadState {
+        private boolean destroyed;
+
+        @PreDestroy
+        public void destroy() {
+            destroyed = true;
+        }
+    }
+
+    @Component(scope = RequestScope.NAME)
+    public static class RequestState {
+        private boolean destroyed;
+
+        @PreDestroy
+        public void destroy() {
+            destroyed = true;
+        }
+    }
+
+    @Component(scope = TenantScope.NAME)
+    public static class TenantState {
+    }
+
+    private static final class TenantScope implements Scope {
+        private static final String NAME = "tenant";
+
+        private final Map<String, Object> instances = new HashMap<>();
+        private String tenant;
+
+        @Override
+        public <T> T get(String name, Creator<T> creator) {
+            return (T) instances.computeIfAbsent(tenant + '/' + name, key -> creator.create());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.usage;
+
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisConfiguration;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.annotation.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsageProfileTest {
+    @TempDir
+    Path directory;
+    private Path profile;
+
+    @BeforeEach
+    void setUp() {
+        profile = directory.resolve("themis.profile");
+        Used.CREATIONS.set(0);
+        Unused.CREATIONS.set(0);
+    }
+
+    @Test
+    void usedSingletonsAreCreatedAtStartupByTheNextRun() {
+        try (var themis = createContainer()) {
+            assertEquals(0, Used.CREATIONS.get());
+            themis.getComponentOfType(Used.class);
+        }
+        Used.CREATIONS.set(0);
+        try (var ignored = createContainer()) {
+            assertEquals(1, Used.CREATIONS.get());
+            assertEquals(0, Unused.CREATIONS.get());
+        }
+    }
+
+    @Test
+    void asyncLookupsAreRecorded() {
+        try (var themis = createContainer()) {
+            themis.getComponentOfTypeAsync(Used.class).join();
+        }
+        Used.CREATIONS.set(0);
+        try (var ignored = createContainer()) {
+            assertEquals(1, Used.CREATIONS.get());
+        }
+    }
+
+    @Test
+    void componentsDestroyedByCloseAreNotRecorded() throws IOException {
+        try (var themis = createContainer()) {
+            themis.getComponentOfType(Used.class);
+        }
+        try (var ignored = createContainer()) {
+            // used is created at startup but not used
+        }
+        assertFalse(Files.readString(profile).contains("used"));
+    }
+
+    @Test
+    void corruptedProfileIsIgnored() throws IOException {
+        Files.write(profile, new byte[]{(byte) 0xC3, 0x28, '\t', '\n'});
+        try (var ignored = createContainer()) {
+            assertEquals(0, Used.CREATIONS.get());
+        }
+    }
+
+    @Test
+    void unwritableProfileIsIgnored() {
+        profile = directory.resolve("missing").resolve("themis.profile");
+        var themis = createContainer();
+        themis.getComponentOfType(Used.class);
+        assertDoesNotThrow(themis::close);
+    }
+
+    private Themis createContainer() {
+        return new ThemisImpl(ThemisConfiguration.builder()
+                                                 .packageName(UsageProfileTest.class.getPackageName())
+                                                 .usageProfile(profile)
+                                                 .build());
+    }
+
+    @Component
+    public static class Used {
+        private static final AtomicInteger CREATIONS = new AtomicInteger();
+
+        public Used() {
+            CREATIONS.incrementAndGet();
+        }
+    }
+
+    @Component
+    public static class Unused {
+        private static final AtomicInteger CREATIONS = new AtomicInteger();
+
+        public Unused() {
+            CREATIONS.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.lang.reflect.Method;
+
+/**
+ * Gives access to the package-private creators compared by {@link com.kpouer.themis.benchmarks.CreatorBenchmark}.
+ */
+public final class BenchmarkCreators {
+    private BenchmarkCreators() {
+    }
+
+    public static <T> Creator<T> reflectiveConstructorCreator(ThemisImpl themis, Class<T> clazz) {
+        return new ReflectiveConstructorCreator<>(themis, clazz);
+    }
+
+    public static <T> Creator<T> constructorCreator(ThemisImpl themis, Class<T> clazz) {
+        return new ConstructorCreator<>(themis, clazz);
+    }
+
+    public static <T> Creator<T> reflectiveMethodCreator(ThemisImpl themis, Method method, Class<T> type) {
+        return new ReflectiveMethodCreator<>(themis, getDeclaringDefinition(themis, method), method, type);
+    }
+
+    public static <T> Creator<T> methodCreator(ThemisImpl themis, Method method) {
+        return new MethodCreator<>(themis, getDeclaringDefinition(themis, method), method);
+    }
+
+    private static ComponentDefinition<?> getDeclaringDefinition(ThemisImpl themis, Method method) {
+        return ComponentDefinition.create(themis, method.getDeclaringClass(), true, true);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import com.kpouer.themis.annotation.Qualifier;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * The argument resolution of Themis 1.0.0, kept as a baseline for {@link com.kpouer.themis.benchmarks.CreatorBenchmark}.
+ */
+final class ReflectiveArguments {
+    private ReflectiveArguments() {
+    }
+
+    static Object[] getArgs(Themis themis, Parameter[] parameters) {
+        var args = new Object[parameters.length];
+        for (var i = 0; i < parameters.length; i++) {
+            var parameter = parameters[i];
+            try {
+                Class<?> type = parameter.getType();
+                var qualifier = parameter.getAnnotation(Qualifier.class);
+                Object component = null;
+                if (qualifier != null) {
+                    var name = qualifier.value();
+                    if (name.isEmpty()) {
+                        name = parameter.getName();
+                    }
+                    try {
+                        component = themis.getComponentOfType(name, type);
+                    } catch (ComponentIocException e) {
+                        // unable to find a component with the qualifier name
+                    }
+                }
+                if (component == null) {
+                    component = themis.getComponentOfType(type);
+                }
+                args[i] = component;
+            } catch (ComponentIocException e) {
+                throw new ComponentIocException("Unable to create component of type " + parameter, e);
+            }
+        }
+        return args;
+    }
+}
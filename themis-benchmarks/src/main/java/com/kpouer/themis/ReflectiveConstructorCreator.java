@@ -0,0 +1,64 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The reflective constructor creator of Themis 1.0.0, kept as a baseline for {@link com.kpouer.themis.benchmarks.CreatorBenchmark}.
+ *
+ * @param <T>
+ */
+class ReflectiveConstructorCreator<T> extends AbstractCreator<T> {
+    private final Class<T> clazz;
+
+    ReflectiveConstructorCreator(ThemisImpl themis, Class<T> clazz) {
+        super(themis);
+        this.clazz = clazz;
+    }
+
+    @Override
+    public T create() {
+        var constructors = clazz.getConstructors();
+        if (constructors.length != 1)
+            throw new ComponentIocException(clazz.getName() + " must have only one constructor");
+
+        var constructor = constructors[0];
+        var parameters = constructor.getParameters();
+        try {
+            T component;
+            if (parameters.length == 0) {
+                component = clazz.cast(constructor.newInstance());
+            } else {
+                var args = ReflectiveArguments.getArgs(themis, parameters);
+                component = clazz.cast(constructor.newInstance(args));
+            }
+            invokePostConstruct(component);
+            return component;
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new ComponentIocException(e);
+        }
+    }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        return Arrays.asList(themis.getDependencies(clazz.getConstructors()[0].getParameters()));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The reflective method creator of Themis 1.0.0, kept as a baseline for {@link com.kpouer.themis.benchmarks.CreatorBenchmark}.
+ *
+ * @param <T>
+ */
+class ReflectiveMethodCreator<T> extends AbstractCreator<T> {
+    private final ComponentDefinition<?> componentDefinition;
+    private final Method method;
+    private final Class<T> type;
+
+    ReflectiveMethodCreator(ThemisImpl themis, ComponentDefinition<?> componentDefinition, Method method, Class<T> type) {
+        super(themis);
+        this.componentDefinition = componentDefinition;
+        this.method = method;
+        this.type = type;
+    }
+
+    @Override
+    public T create() {
+        var parameters = method.getParameters();
+        try {
+            var instance = componentDefinition.getInstance();
+            T component;
+            if (parameters.length == 0) {
+                component = type.cast(method.invoke(instance));
+            } else {
+                component = type.cast(method.invoke(instance, ReflectiveArguments.getArgs(themis, parameters)));
+            }
+            invokePostConstruct(component);
+            return component;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new ComponentIocException(e);
+        }
+    }
+
+    @Override
+    List<ComponentDefinition<?>> getDependencies() {
+        var dependencies = new ArrayList<ComponentDefinition<?>>();
+        dependencies.add(componentDefinition);
+        dependencies.addAll(Arrays.asList(themis.getDependencies(method.getParameters())));
+        return dependencies;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.benchmarks;
+
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.benchmarks.contended.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the first access to a lazy singleton by many threads at the same time, the threads waiting for the one
+ * creating the component.
+ * Only the platform threads are measured by default since the virtual threads need Java 21, on Java 21 or with the
+ * -jvm option of JMH pointing to a newer JVM add them with -p threads=PLATFORM,VIRTUAL.
+ *
+ * @author Matthieu Casanova
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ContendedAccessBenchmark {
+    public enum Threads {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Param("PLATFORM")
+    private Threads threads;
+    @Param({"16", "256"})
+    private int count;
+
+    private ExecutorService executor;
+    private Themis themis;
+    private CountDownLatch start;
+    private List<Future<Service>> futures;
+
+    @Setup(Level.Trial)
+    public void createExecutor() throws ReflectiveOperationException {
+        executor = switch (threads) {
+            case PLATFORM -> Executors.newFixedThreadPool(count);
+            case VIRTUAL -> newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("The virtual threads need Java 21, running on " + Runtime.version(), e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a new container and starts the threads, they are all waiting for the start signal when the benchmark is
+     * invoked.
+     */
+    @Setup(Level.Invocation)
+    public void prepare() throws InterruptedException {
+        themis = new ThemisImpl("com.kpouer.themis.benchmarks.contended");
+        start = new CountDownLatch(1);
+        var ready = new CountDownLatch(count);
+        futures = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                return themis.getComponentOfType(Service.class);
+            }));
+        }
+        ready.await();
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        themis.close();
+    }
+
+    @Benchmark
+    public Service firstAccess() throws ExecutionException, InterruptedException {
+        start.countDown();
+        Service service = null;
+        for (var future : futures) {
+            service = future.get();
+        }
+        return service;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.benchmarks;
+
+import com.kpouer.themis.BenchmarkCreators;
+import com.kpouer.themis.Creator;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.benchmarks.creator.DependencyA;
+import com.kpouer.themis.benchmarks.creator.Factory;
+import com.kpouer.themis.benchmarks.creator.Product;
+import com.kpouer.themis.benchmarks.creator.Prototype;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.Scope;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective creators of Themis 1.0.0 with the method handle based creators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreatorBenchmark {
+    private Creator<Prototype> reflectiveConstructorCreator;
+    private Creator<Prototype> constructorCreator;
+    private Creator<Product> reflectiveMethodCreator;
+    private Creator<Product> methodCreator;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        var themis = new ThemisImpl("com.kpouer.themis.benchmarks.creator");
+        var method = Factory.class.getMethod("product", DependencyA.class);
+        reflectiveConstructorCreator = BenchmarkCreators.reflectiveConstructorCreator(themis, Prototype.class);
+        constructorCreator = BenchmarkCreators.constructorCreator(themis, Prototype.class);
+        reflectiveMethodCreator = BenchmarkCreators.reflectiveMethodCreator(themis, method, Product.class);
+        methodCreator = BenchmarkCreators.methodCreator(themis, method);
+    }
+
+    @Benchmark
+    public Prototype reflectiveConstructor() {
+        return reflectiveConstructorCreator.create();
+    }
+
+    @Benchmark
+    public Prototype methodHandleConstructor() {
+        return constructorCreator.create();
+    }
+
+    @Benchmark
+    public Product reflectiveMethod() {
+        return reflectiveMethodCreator.create();
+    }
+
+    @Benchmark
+    public Product methodHandleMethod() {
+        return methodCreator.create();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.benchmarks;
+
+import com.kpouer.themis.ThemisImpl;
+import jakarta.annotation.PostConstruct;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * A class loader containing Themis and a fixture.
+ * Themis loads the components with its own class loader, so a new class loader starts a container with cold classes
+ * as in a new JVM.
+ *
+ * @author Matthieu Casanova
+ */
+final class FixtureClassLoader extends URLClassLoader {
+    FixtureClassLoader(Path fixture) {
+        super(getUrls(fixture), ClassLoader.getPlatformClassLoader());
+    }
+
+    private static URL[] getUrls(Path fixture) {
+        var locations = new LinkedHashSet<Path>();
+        locations.add(fixture);
+        locations.add(Fixtures.getLocation(ThemisImpl.class));
+        locations.add(Fixtures.getLocation(PostConstruct.class));
+        try {
+            var urls = new URL[locations.size()];
+            var i = 0;
+            for (var location : locations) {
+                urls[i++] = location.toUri().toURL();
+            }
+            return urls;
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Creates a container scanning the given package.
+     *
+     * @param packageName the package of the fixture
+     * @return the container, an instance of the ThemisImpl class of this class loader
+     */
+    AutoCloseable newThemis(String packageName) throws ReflectiveOperationException {
+        var themisClass = loadClass(ThemisImpl.class.getName());
+        return (AutoCloseable) themisClass.getConstructor(String[].class).newInstance((Object) new String[]{packageName});
+    }
+
+    /**
+     * Creates all the components of a fixture.
+     *
+     * @param themis      the container
+     * @param packageName the package of the fixture
+     * @return the number of components
+     */
+    int createAll(AutoCloseable themis, String packageName) throws ReflectiveOperationException {
+        var baseType = loadClass(packageName + '.' + Fixtures.BASE_TYPE);
+        var method = loadClass("com.kpouer.themis.Themis").getMethod("getComponentsOfType", Class.class);
+        return ((Map<?, ?>) method.invoke(themis, baseType)).size();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.benchmarks;
+
+import com.kpouer.themis.annotation.Component;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Generates the fixtures of the benchmarks, packages of components compiled in a directory or in a jar.
+ * A fixture only depends on its shape and its size so it is generated once in the fixture directory, target/fixtures
+ * or the themis.benchmarks.fixtures system property, and reused by the next runs.
+ *
+ * @author Matthieu Casanova
+ */
+public final class Fixtures {
+    private static final String PACKAGE = "com.kpouer.themis.benchmarks.generated";
+    /**
+     * The interface implemented by all the components of a fixture.
+     */
+    static final String BASE_TYPE = "GeneratedComponent";
+    private static final int DEPTH = 100;
+    private static final int FAN_OUT = 10;
+    private static final Path ROOT = Path.of(System.getProperty("themis.benchmarks.fixtures", "target/fixtures"));
+
+    public enum Shape {
+        /**
+         * Components without dependencies.
+         */
+        FLAT,
+        /**
+         * Chains of 100 components, each one depending on the previous one.
+         */
+        DEEP,
+        /**
+         * A tree where each component depends on 10 other components.
+         */
+        WIDE
+    }
+
+    public enum Layout {
+        DIRECTORY,
+        JAR
+    }
+
+    private Fixtures() {
+    }
+
+    static String getPackageName(Shape shape, int size) {
+        return PACKAGE + '.' + getName(shape, size);
+    }
+
+    /**
+     * Returns the location of a fixture, generating it if needed.
+     *
+     * @param shape  the shape of the dependency graph
+     * @param size   the number of components
+     * @param layout the layout of the compiled classes
+     * @return the directory or the jar containing the fixture
+     */
+    static synchronized Path get(Shape shape, int size, Layout layout) throws IOException {
+        var name = getName(shape, size);
+        var classes = ROOT.resolve(name);
+        if (!Files.isDirectory(classes)) {
+            generate(shape, size, classes);
+        }
+        if (layout == Layout.DIRECTORY) {
+            return classes;
+        }
+        var jar = ROOT.resolve(name + ".jar");
+        if (!Files.exists(jar)) {
+            createJar(classes, jar);
+        }
+        return jar;
+    }
+
+    static Path getLocation(Class<?> type) {
+        try {
+            return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Unable to locate " + type, e);
+        }
+    }
+
+    private static String getName(Shape shape, int size) {
+        return shape.name().toLowerCase() + size;
+    }
+
+    private static List<Integer> getDependencies(Shape shape, int size, int index) {
+        return switch (shape) {
+            case FLAT -> List.of();
+            case DEEP -> index % DEPTH == 0 ? List.of() : List.of(index - 1);
+            case WIDE -> {
+                var dependencies = new ArrayList<Integer>(FAN_OUT);
+                for (var i = index * FAN_OUT + 1; i <= index * FAN_OUT + FAN_OUT && i < size; i++) {
+                    dependencies.add(i);
+                }
+                yield dependencies;
+            }
+        };
+    }
+
+    private static void generate(Shape shape, int size, Path classes) throws IOException {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("The fixtures are compiled by the benchmarks, they must run on a JDK");
+        }
+        var packageName = getPackageName(shape, size);
+        Files.createDirectories(ROOT);
+        var work = Files.createTempDirectory(ROOT, getName(shape, size));
+        var sourceDirectory = Files.createDirectories(work.resolve("sources").resolve(packageName.replace('.', '/')));
+        var output = Files.createDirectories(work.resolve("classes"));
+        var sources = new ArrayList<Path>(size + 1);
+        sources.add(write(sourceDirectory, BASE_TYPE, "package " + packageName + ";\n\npublic interface " + BASE_TYPE + " {\n}\n"));
+        for (var i = 0; i < size; i++) {
+            sources.add(write(sourceDirectory, "Service" + i, getSource(packageName, i, getDependencies(shape, size, i))));
+        }
+        try (var fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            var options = List.of("-proc:none",
+                                  "-classpath", getLocation(Component.class).toString(),
+                                  "-d", output.toString());
+            var task = compiler.getTask(null, fileManager, null, options, null, fileManager.getJavaFileObjectsFromPaths(sources));
+            if (!task.call()) {
+                throw new IllegalStateException("Unable to compile the fixture " + packageName);
+            }
+        }
+        Files.move(output, classes, StandardCopyOption.ATOMIC_MOVE);
+        delete(work);
+    }
+
+    private static String getSource(String packageName, int index, List<Integer> dependencies) {
+        var source = new StringBuilder(256)
+            .append("package ").append(packageName).append(";\n\n")
+            .append("@com.kpouer.themis.annotation.Component\n")
+            .append("public class Service").append(index).append(" implements ").append(BASE_TYPE).append(" {\n")
+            .append("    public Service").append(index).append('(');
+        for (var i = 0; i < dependencies.size(); i++) {
+            if (i > 0) {
+                source.append(", ");
+            }
+            source.append("Service").append(dependencies.get(i)).append(" dependency").append(i);
+        }
+        return source.append(") {\n    }\n}\n").toString();
+    }
+
+    private static Path write(Path directory, String className, String source) throws IOException {
+        return Files.writeString(directory.resolve(className + ".java"), source);
+    }
+
+    private static void createJar(Path classes, Path jar) throws IOException {
+        var tmp = Files.createTempFile(ROOT, jar.getFileName().toString(), ".tmp");
+        try (var output = new JarOutputStream(Files.newOutputStream(tmp));
+             var paths = Files.walk(classes)) {
+            for (var path : (Iterable<Path>) paths.sorted()::iterator) {
+                if (path.equals(classes)) {
+                    continue;
+                }
+                var name = classes.relativize(path).toString().replace('\\', '/');
+                if (Files.isDirectory(path)) {
+                    // the class loader needs the directory entries to find the package
+                    output.putNextEntry(new JarEntry(name + '/'));
+                } else {
+                    output.putNextEntry(new JarEntry(name));
+                    Files.copy(path, output);
+                }
+                output.closeEntry();
+            }
+        }
+        Files.move(tmp, jar, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (var paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of all the components of a new container for flat, deep and wide dependency graphs.
+ * The classes are loaded once per trial, only the first invocations run in the interpreter.
+ *
+ * @author Matthieu Casanova
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class GraphBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int size;
+    @Param({"FLAT", "DEEP", "WIDE"})
+    private Fixtures.Shape shape;
+
+    private String packageName;
+    private FixtureClassLoader classLoader;
+    private AutoCloseable themis;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        classLoader = new FixtureClassLoader(Fixtures.get(shape, size, Fixtures.Layout.DIRECTORY));
+        packageName = Fixtures.getPackageName(shape, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createContainer() throws ReflectiveOperationException {
+        themis = classLoader.newThemis(packageName);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeContainer() throws Exception {
+        themis.close();
+    }
+
+    @Benchmark
+    public int createAll() throws ReflectiveOperationException {
+        return classLoader.createAll(themis, packageName);
+    }
+}
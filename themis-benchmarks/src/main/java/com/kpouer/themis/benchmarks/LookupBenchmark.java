@@ -0,0 +1,98 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.benchmarks;
+
+import com.kpouer.themis.ComponentRef;
+import com.kpouer.themis.Themis;
+import com.kpouer.themis.ThemisImpl;
+import com.kpouer.themis.benchmarks.lookup.Plugin;
+import com.kpouer.themis.benchmarks.lookup.Repository;
+import com.kpouer.themis.benchmarks.lookup.Request;
+import com.kpouer.themis.benchmarks.lookup.Storage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of existing components and the creation of a prototype.
+ *
+ * @author Matthieu Casanova
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LookupBenchmark {
+    private Themis themis;
+    private ComponentRef<Repository> repositoryRef;
+    private ComponentRef<Request> requestRef;
+
+    @Setup
+    public void setup() {
+        themis = new ThemisImpl("com.kpouer.themis.benchmarks.lookup");
+        themis.getComponentsOfType(Object.class);
+        repositoryRef = themis.ref(Repository.class);
+        requestRef = themis.ref(Request.class);
+    }
+
+    @TearDown
+    public void close() {
+        themis.close();
+    }
+
+    @Benchmark
+    public Repository byName() {
+        return themis.getComponentOfType("repository", Repository.class);
+    }
+
+    @Benchmark
+    public Repository byType() {
+        return themis.getComponentOfType(Repository.class);
+    }
+
+    /**
+     * There is no component named storage, the component is found by its type.
+     */
+    @Benchmark
+    public Storage bySuperType() {
+        return themis.getComponentOfType(Storage.class);
+    }
+
+    @Benchmark
+    public Map<String, Plugin> componentsOfType() {
+        return themis.getComponentsOfType(Plugin.class);
+    }
+
+    @Benchmark
+    public Request prototype() {
+        return themis.getComponentOfType(Request.class);
+    }
+
+    @Benchmark
+    public Repository ref() {
+        return repositoryRef.get();
+    }
+
+    @Benchmark
+    public Request prototypeRef() {
+        return requestRef.get();
+    }
+}
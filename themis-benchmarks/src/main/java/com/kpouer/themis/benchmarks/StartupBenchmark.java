@@ -0,0 +1,74 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of a container scanning a generated package, in a new class loader for each invocation so
+ * the class loading and the interpreted code of a real startup are included.
+ *
+ * @author Matthieu Casanova
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(2)
+public class StartupBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int size;
+    @Param({"DIRECTORY", "JAR"})
+    private Fixtures.Layout layout;
+
+    private Path fixture;
+    private String packageName;
+    private FixtureClassLoader classLoader;
+    private AutoCloseable themis;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        fixture = Fixtures.get(Fixtures.Shape.FLAT, size, layout);
+        packageName = Fixtures.getPackageName(Fixtures.Shape.FLAT, size);
+    }
+
+    @Setup(Level.Invocation)
+    public void createClassLoader() {
+        classLoader = new FixtureClassLoader(fixture);
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() throws Exception {
+        if (themis != null) {
+            themis.close();
+            themis = null;
+        }
+        classLoader.close();
+    }
+
+    @Benchmark
+    public Object construct() throws ReflectiveOperationException {
+        themis = classLoader.newThemis(packageName);
+        return themis;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor writing the component index read by ThemisImpl.
+ * The index lists every class annotated with <code>@Component</code> and every
+ * <code>@Component</code> factory method so that the container doesn't have to scan the classpath.
+ * When the <code>themis.aot</code> option is set to true, a reflection free creator is also generated for each
+ * component and referenced by the index.
+ * An incremental compilation only processes some classes, the entries of the existing index are kept for the classes
+ * that were not compiled and still exist.
+ *
+ * @author Matthieu Casanova
+ */
+// all the compilations are processed, a compiled class that is no longer a component must be removed from the index
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ComponentIndexProcessor.AOT_OPTION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+    static final String COMPONENT = "com.kpouer.themis.annotation.Component";
+    static final String AOT_OPTION = "themis.aot";
+    /**
+     * Must be kept in sync with com.kpouer.themis.ComponentIndex.LOCATION
+     */
+    static final String LOCATION = "META-INF/themis.components";
+
+    private final Set<String> entries = new TreeSet<>();
+    /**
+     * The binary names of the top level classes of the compilation.
+     */
+    private final Set<String> compiledTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        var elements = processingEnv.getElementUtils();
+        for (var rootElement : roundEnv.getRootElements()) {
+            if (rootElement instanceof TypeElement typeElement) {
+                compiledTypes.add(elements.getBinaryName(typeElement).toString());
+            }
+        }
+        var component = elements.getTypeElement(COMPONENT);
+        if (component == null) {
+            return false;
+        }
+        var creatorGenerator = Boolean.parseBoolean(processingEnv.getOptions().get(AOT_OPTION)) ? new CreatorGenerator(processingEnv) : null;
+        for (var element : roundEnv.getElementsAnnotatedWith(component)) {
+            String entry = null;
+            String creator = null;
+            if (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD) {
+                entry = elements.getBinaryName((TypeElement) element).toString();
+                if (creatorGenerator != null) {
+                    creator = creatorGenerator.generate((TypeElement) element);
+                }
+            } else if (element.getKind() == ElementKind.METHOD) {
+                var enclosingType = (TypeElement) element.getEnclosingElement();
+                entry = elements.getBinaryName(enclosingType) + "#" + element.getSimpleName();
+                if (creatorGenerator != null) {
+                    creator = creatorGenerator.generate((ExecutableElement) element);
+                }
+            }
+            if (entry != null) {
+                entries.add(creator == null ? entry : entry + ' ' + creator);
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        // an existing index is rewritten even if empty, its components may have been removed
+        if (!readExistingIndex() && entries.isEmpty()) {
+            return;
+        }
+        try {
+            var resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by themis-processor, do not edit\n");
+                for (var entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Keep the entries of the index written by a previous compilation for the classes that were not compiled this
+     * time. The entries of the compiled classes were just rebuilt and those of the deleted classes are dropped.
+     *
+     * @return true if there was an index
+     */
+    private boolean readExistingIndex() {
+        var elements = processingEnv.getElementUtils();
+        try {
+            var resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", LOCATION);
+            try (var reader = new BufferedReader(resource.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    var entry = line.trim();
+                    if (entry.isEmpty() || entry.charAt(0) == '#') {
+                        continue;
+                    }
+                    var className = getClassName(entry);
+                    var separator = className.indexOf('$');
+                    var topLevelClassName = separator == -1 ? className : className.substring(0, separator);
+                    if (!compiledTypes.contains(topLevelClassName) && elements.getTypeElement(className.replace('$', '.')) != null) {
+                        entries.add(entry);
+                    }
+                }
+            }
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            // there is no index yet
+            return false;
+        }
+    }
+
+    /**
+     * Returns the class name of an index entry.
+     *
+     * @param entry the entry, a class name or a factory method, optionally followed by its creator
+     * @return the class name
+     */
+    private static String getClassName(String entry) {
+        var end = entry.length();
+        var creatorSeparator = entry.indexOf(' ');
+        if (creatorSeparator != -1) {
+            end = creatorSeparator;
+        }
+        var methodSeparator = entry.indexOf('#');
+        if (methodSeparator != -1 && methodSeparator < end) {
+            end = methodSeparator;
+        }
+        return entry.substring(0, end);
+    }
+}
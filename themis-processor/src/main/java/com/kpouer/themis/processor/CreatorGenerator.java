@@ -0,0 +1,343 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates the reflection free creators used in AOT mode.
+ * For each component a subclass of com.kpouer.themis.GeneratedCreator is written in the package of the component.
+ * It declares the parameters, and the component declaring a factory method, as the dependencies of the component, they
+ * are resolved by the container following the {@link #QUALIFIER} annotations. It calls the constructor or the factory
+ * method directly and calls the {@link #POST_CONSTRUCT} methods.
+ * When a component cannot be generated (no single public constructor, private factory method, overloaded factory
+ * method, lazy parameter, asynchronous factory method ...) a warning is printed and the container will use reflection for it.
+ *
+ * @author Matthieu Casanova
+ */
+class CreatorGenerator {
+    private static final String QUALIFIER = "com.kpouer.themis.annotation.Qualifier";
+    private static final String POST_CONSTRUCT = "jakarta.annotation.PostConstruct";
+    private static final String LAZY = "com.kpouer.themis.annotation.Lazy";
+    /**
+     * The return types of the asynchronous factory methods, they are left to the container.
+     */
+    private static final Set<String> ASYNC_TYPES = Set.of("java.util.concurrent.CompletableFuture",
+                                                          "java.util.concurrent.CompletionStage");
+    /**
+     * The parameter types injected without resolving a single component, they are left to the container.
+     */
+    private static final Set<String> INDIRECT_TYPES = Set.of("com.kpouer.themis.Provider",
+                                                             "com.kpouer.themis.ComponentPool",
+                                                             "java.util.function.Supplier",
+                                                             "java.util.Optional",
+                                                             "java.util.List",
+                                                             "java.util.Collection",
+                                                             "java.util.Map");
+    private static final String SUFFIX = "_ThemisCreator";
+
+    private final ProcessingEnvironment processingEnv;
+
+    CreatorGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    /**
+     * Generates the creator of a component class.
+     *
+     * @param type the component class
+     * @return the binary name of the creator or null if it was not generated
+     */
+    String generate(TypeElement type) {
+        if (!isAccessible(type) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            warning(type, "is not accessible or is abstract");
+            return null;
+        }
+        var constructors = new ArrayList<ExecutableElement>();
+        for (var constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                constructors.add(constructor);
+            }
+        }
+        if (constructors.size() != 1) {
+            warning(type, "must have only one public constructor");
+            return null;
+        }
+        var constructor = constructors.get(0);
+        var typeName = typeName(type.asType());
+        return write(type,
+                     creatorSimpleName(type, ""),
+                     typeName,
+                     constructor,
+                     null,
+                     "new " + typeName,
+                     type.asType());
+    }
+
+    /**
+     * Generates the creator of a factory method.
+     *
+     * @param method the factory method
+     * @return the binary name of the creator or null if it was not generated
+     */
+    String generate(ExecutableElement method) {
+        var type = (TypeElement) method.getEnclosingElement();
+        if (!isAccessible(type) || method.getModifiers().contains(Modifier.PRIVATE)) {
+            warning(method, "is not accessible");
+            return null;
+        }
+        if (method.getReturnType().getKind() == TypeKind.VOID) {
+            return null;
+        }
+        for (var other : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (other != method && other.getSimpleName().equals(method.getSimpleName())) {
+                warning(method, "is overloaded");
+                return null;
+            }
+        }
+        var returnType = method.getReturnType();
+        if (ASYNC_TYPES.contains(typeName(returnType))) {
+            warning(method, "is asynchronous");
+            return null;
+        }
+        if (returnType.getKind().isPrimitive()) {
+            returnType = processingEnv.getTypeUtils().boxedClass((PrimitiveType) returnType).asType();
+        }
+        String declaringType;
+        String target;
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+            declaringType = null;
+            target = typeName(type.asType());
+        } else {
+            // the declaring component is the first dependency
+            declaringType = typeName(type.asType());
+            target = "((" + declaringType + ") args[0])";
+        }
+        return write(method,
+                     creatorSimpleName(type, "_" + method.getSimpleName()),
+                     typeName(returnType),
+                     method,
+                     declaringType,
+                     target + '.' + method.getSimpleName(),
+                     returnType);
+    }
+
+    /**
+     * Write a creator.
+     *
+     * @param origin            the component class or the factory method
+     * @param creatorSimpleName the simple name of the creator
+     * @param componentType     the type of the component
+     * @param executable        the constructor or the factory method
+     * @param declaringType     the type of the component declaring the factory method, null for a constructor or a
+     *                          static factory method
+     * @param invocation        the expression calling the constructor or the factory method, without the arguments
+     * @param postConstructType the type declaring the post construct methods
+     * @return the binary name of the creator or null if it was not generated
+     */
+    private String write(Element origin,
+                         String creatorSimpleName,
+                         String componentType,
+                         ExecutableElement executable,
+                         String declaringType,
+                         String invocation,
+                         TypeMirror postConstructType) {
+        for (var parameter : executable.getParameters()) {
+            if (hasAnnotation(parameter, LAZY) || INDIRECT_TYPES.contains(typeName(parameter.asType()))) {
+                warning(origin, "has a lazy or collection parameter " + parameter);
+                return null;
+            }
+        }
+        var packageName = processingEnv.getElementUtils().getPackageOf(origin).getQualifiedName().toString();
+        var creatorName = packageName.isEmpty() ? creatorSimpleName : packageName + '.' + creatorSimpleName;
+        var postConstructs = getPostConstructs(postConstructType);
+        var throwsChecked = !executable.getThrownTypes().isEmpty() ||
+            postConstructs.stream().anyMatch(postConstruct -> !postConstruct.getThrownTypes().isEmpty());
+        try (var writer = new PrintWriter(processingEnv.getFiler().createSourceFile(creatorName, origin).openWriter())) {
+            if (!packageName.isEmpty()) {
+                writer.println("package " + packageName + ';');
+                writer.println();
+            }
+            writer.println("/**");
+            writer.println(" * Creator of " + componentType + ", generated by themis-processor, do not edit.");
+            writer.println(" */");
+            writer.println("@javax.annotation.processing.Generated(\"" + ComponentIndexProcessor.class.getName() + "\")");
+            writer.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            writer.println("public final class " + creatorSimpleName + " extends com.kpouer.themis.GeneratedCreator<" + componentType + "> {");
+            var dependencies = new ArrayList<String>();
+            if (declaringType != null) {
+                dependencies.add(dependency(declaringType, null));
+            }
+            var parameters = executable.getParameters();
+            var args = new StringBuilder();
+            for (var parameter : parameters) {
+                var parameterType = typeName(parameter.asType());
+                if (!args.isEmpty()) {
+                    args.append(", ");
+                }
+                args.append('(').append(parameterType).append(") args[").append(dependencies.size()).append(']');
+                dependencies.add(dependency(parameterType, getQualifier(parameter)));
+            }
+            writer.println("    private static final com.kpouer.themis.GeneratedCreator.Dependency[] DEPENDENCIES = {");
+            for (var dependency : dependencies) {
+                writer.println("        " + dependency + ',');
+            }
+            writer.println("    };");
+            writer.println();
+            writer.println("    public " + creatorSimpleName + "(com.kpouer.themis.Themis themis) {");
+            writer.println("        super(themis, DEPENDENCIES);");
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public " + componentType + " create() {");
+            writer.println("        var args = getArgs();");
+            var indent = throwsChecked ? "            " : "        ";
+            if (throwsChecked) {
+                writer.println("        try {");
+            }
+            writer.println(indent + componentType + " component = " + invocation + '(' + args + ");");
+            for (var postConstruct : postConstructs) {
+                writer.println(indent + "component." + postConstruct.getSimpleName() + "();");
+            }
+            writer.println(indent + "return component;");
+            if (throwsChecked) {
+                writer.println("        } catch (Exception e) {");
+                writer.println("            throw new com.kpouer.themis.ComponentIocException(e);");
+                writer.println("        }");
+            }
+            writer.println("    }");
+            writer.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + creatorName + ": " + e.getMessage(), origin);
+            return null;
+        }
+        return creatorName;
+    }
+
+    /**
+     * Returns the expression creating a dependency.
+     *
+     * @param type      the type of the dependency
+     * @param qualifier the qualifier or null
+     */
+    private static String dependency(String type, String qualifier) {
+        var qualifierExpression = qualifier == null ? "null" : '"' + escape(qualifier) + '"';
+        return "new com.kpouer.themis.GeneratedCreator.Dependency(" + type + ".class, " + qualifierExpression + ')';
+    }
+
+    /**
+     * Returns the qualifier of a parameter, it follows the rules of ThemisImpl for the {@link #QUALIFIER} parameters.
+     *
+     * @return the name of the qualified component or null if the parameter is not qualified
+     */
+    private static String getQualifier(VariableElement parameter) {
+        for (var annotationMirror : parameter.getAnnotationMirrors()) {
+            var annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(QUALIFIER)) {
+                var name = parameter.getSimpleName().toString();
+                for (var entry : annotationMirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value") && !entry.getValue().getValue().toString().isEmpty()) {
+                        name = entry.getValue().getValue().toString();
+                    }
+                }
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private List<ExecutableElement> getPostConstructs(TypeMirror type) {
+        var postConstructs = new ArrayList<ExecutableElement>();
+        if (type.getKind() != TypeKind.DECLARED) {
+            return postConstructs;
+        }
+        var typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        var members = processingEnv.getElementUtils().getAllMembers(typeElement);
+        for (var method : ElementFilter.methodsIn(members)) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) &&
+                !method.getModifiers().contains(Modifier.STATIC) &&
+                method.getParameters().isEmpty() &&
+                hasAnnotation(method, POST_CONSTRUCT)) {
+                postConstructs.add(method);
+            }
+        }
+        return postConstructs;
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        for (var annotationMirror : element.getAnnotationMirrors()) {
+            var annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A type is accessible from its package if neither it nor its enclosing types are private,
+     * inner classes are excluded since they need an enclosing instance.
+     */
+    private static boolean isAccessible(TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            var modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (element.getEnclosingElement() instanceof TypeElement && !modifiers.contains(Modifier.STATIC)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private String creatorSimpleName(TypeElement type, String suffix) {
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        var simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return simpleName.replace('$', '_') + suffix + SUFFIX;
+    }
+
+    private String typeName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                                                 "No AOT creator generated, " + element + ' ' + message,
+                                                 element);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentIndexProcessorTest {
+    private static final String REPOSITORY = """
+        package app;
+
+        @com.kpouer.themis.annotation.Component
+        public class Repository {
+        }
+        """;
+    private static final String FACTORIES = """
+        package app;
+
+        public class Factories {
+            @com.kpouer.themis.annotation.Component
+            public String name() {
+                return "name";
+            }
+        }
+        """;
+    private static final String OUTER = """
+        package app;
+
+        public class Outer {
+            @com.kpouer.themis.annotation.Component("inner")
+            public static class Inner {
+            }
+        }
+        """;
+
+    @TempDir
+    Path output;
+
+    @Test
+    void componentsAndFactoryMethodsAreIndexed() throws IOException {
+        compile(Map.of("com.kpouer.themis.annotation.Component", TestCompiler.COMPONENT_SOURCE,
+                       "app.Repository", REPOSITORY,
+                       "app.Factories", FACTORIES,
+                       "app.Outer", OUTER));
+        assertEquals(List.of("app.Factories#name", "app.Outer$Inner", "app.Repository"), readIndex());
+    }
+
+    @Test
+    void incrementalCompilationKeepsTheOtherEntries() throws IOException {
+        compile(Map.of("com.kpouer.themis.annotation.Component", TestCompiler.COMPONENT_SOURCE,
+                       "app.Repository", REPOSITORY,
+                       "app.Factories", FACTORIES,
+                       "app.Outer", OUTER));
+        compile(Map.of("app.Repository", REPOSITORY.replace("@com.kpouer.themis.annotation.Component", "")));
+        assertEquals(List.of("app.Factories#name", "app.Outer$Inner"), readIndex());
+    }
+
+    @Test
+    void lastComponentIsRemoved() throws IOException {
+        compile(Map.of("com.kpouer.themis.annotation.Component", TestCompiler.COMPONENT_SOURCE,
+                       "app.Repository", REPOSITORY));
+        compile(Map.of("app.Repository", REPOSITORY.replace("@com.kpouer.themis.annotation.Component", "")));
+        assertEquals(List.of(), readIndex());
+    }
+
+    @Test
+    void deletedClassesAreRemoved() throws IOException {
+        compile(Map.of("com.kpouer.themis.annotation.Component", TestCompiler.COMPONENT_SOURCE,
+                       "app.Repository", REPOSITORY,
+                       "app.Outer", OUTER));
+        Files.delete(output.resolve("app/Outer.class"));
+        Files.delete(output.resolve("app/Outer$Inner.class"));
+        compile(Map.of("app.Repository", REPOSITORY));
+        assertEquals(List.of("app.Repository"), readIndex());
+    }
+
+    @Test
+    void noIndexWithoutComponent() throws IOException {
+        compile(Map.of("app.Plain", "package app; public class Plain {}"));
+        assertFalse(Files.exists(output.resolve(ComponentIndexProcessor.LOCATION)));
+    }
+
+    private void compile(Map<String, String> sources) throws IOException {
+        TestCompiler.compile(output, List.of(), List.of(), sources);
+    }
+
+    private List<String> readIndex() throws IOException {
+        return Files.readAllLines(output.resolve(ComponentIndexProcessor.LOCATION))
+                    .stream()
+                    .filter(line -> !line.startsWith("#"))
+                    .toList();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.processor;
+
+import com.kpouer.themis.Themis;
+import jakarta.annotation.PostConstruct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreatorGeneratorTest {
+    private static final String REPOSITORY = """
+        package app;
+
+        @com.kpouer.themis.annotation.Component
+        public class Repository {
+        }
+        """;
+    private static final String GREETERS = """
+        package app;
+
+        import com.kpouer.themis.annotation.Component;
+
+        public class Greeters {
+            public interface Greeter {
+                String greet();
+            }
+
+            @Component("english")
+            public static class English implements Greeter {
+                public String greet() {
+                    return "hello";
+                }
+            }
+
+            @Component("french")
+            public static class French implements Greeter {
+                public String greet() {
+                    return "bonjour";
+                }
+            }
+        }
+        """;
+    private static final String SERVICE = """
+        package app;
+
+        import com.kpouer.themis.annotation.Component;
+        import com.kpouer.themis.annotation.Qualifier;
+        import jakarta.annotation.PostConstruct;
+
+        @Component
+        public class Service {
+            private final Repository repository;
+            private final Greeters.Greeter greeter;
+            private boolean initialized;
+
+            public Service(Repository repository, @Qualifier("french") Greeters.Greeter greeter) {
+                this.repository = repository;
+                this.greeter = greeter;
+            }
+
+            @PostConstruct
+            public void init() {
+                initialized = true;
+            }
+
+            @Override
+            public String toString() {
+                return greeter.greet() + ' ' + (repository != null) + ' ' + initialized;
+            }
+        }
+        """;
+    private static final String FACTORIES = """
+        package app;
+
+        import com.kpouer.themis.annotation.Component;
+        import com.kpouer.themis.annotation.Qualifier;
+
+        @Component
+        public class Factories {
+            @Component
+            public String greeting(@Qualifier("english") Greeters.Greeter greeter) {
+                return greeter.greet() + " world";
+            }
+
+            @Component
+            public String label() {
+                return label(1);
+            }
+
+            public String label(int count) {
+                return "label " + count;
+            }
+        }
+        """;
+    @TempDir
+    Path output;
+
+    @Test
+    void creatorsAreGeneratedAndIndexed() throws Exception {
+        var warnings = compile();
+        assertEquals(List.of("No AOT creator generated, label() is overloaded"), warnings);
+        var index = Files.readAllLines(output.resolve(ComponentIndexProcessor.LOCATION));
+        assertTrue(index.contains("app.Service app.Service_ThemisCreator"), index.toString());
+        assertTrue(index.contains("app.Greeters$French app.Greeters_French_ThemisCreator"), index.toString());
+        assertTrue(index.contains("app.Factories#greeting app.Factories_greeting_ThemisCreator"), index.toString());
+        assertTrue(index.contains("app.Factories#label"), index.toString());
+    }
+
+    @Test
+    void containerUsesTheGeneratedCreators() throws Exception {
+        compile();
+        try (var classLoader = new RecordingClassLoader(new URL[]{output.toUri().toURL(),
+                                                                  getLocation(Themis.class).toUri().toURL(),
+                                                                  getLocation(PostConstruct.class).toUri().toURL()})) {
+            var themisClass = classLoader.loadClass("com.kpouer.themis.ThemisImpl");
+            var getComponentOfType = themisClass.getMethod("getComponentOfType", String.class, Class.class);
+            var themis = themisClass.getConstructor(String[].class).newInstance((Object) new String[]{"app"});
+            var service = getComponentOfType.invoke(themis, "service", classLoader.loadClass("app.Service"));
+            assertEquals("bonjour true true", service.toString());
+            assertEquals("hello world", getComponentOfType.invoke(themis, "greeting", String.class));
+            assertEquals("label 1", getComponentOfType.invoke(themis, "label", String.class));
+            assertTrue(classLoader.loadedClasses.containsAll(Set.of("app.Service_ThemisCreator",
+                                                                    "app.Repository_ThemisCreator",
+                                                                    "app.Greeters_French_ThemisCreator",
+                                                                    "app.Factories_greeting_ThemisCreator")),
+                       classLoader.loadedClasses.toString());
+        }
+    }
+
+    @Test
+    void generatedCreatorsDeclareTheirDependencies() throws Exception {
+        compile();
+        try (var classLoader = new URLClassLoader(new URL[]{output.toUri().toURL(),
+                                                            getLocation(Themis.class).toUri().toURL(),
+                                                            getLocation(PostConstruct.class).toUri().toURL()},
+                                                  ClassLoader.getPlatformClassLoader())) {
+            var serviceCreator = classLoader.loadClass("app.Service_ThemisCreator");
+            assertEquals("com.kpouer.themis.GeneratedCreator", serviceCreator.getSuperclass().getName());
+            assertEquals(List.of("Dependency[type=class app.Repository, qualifier=null]",
+                                 "Dependency[type=interface app.Greeters$Greeter, qualifier=french]"),
+                         getDependencies(serviceCreator));
+            // the component declaring a factory method comes first
+            assertEquals(List.of("Dependency[type=class app.Factories, qualifier=null]",
+                                 "Dependency[type=interface app.Greeters$Greeter, qualifier=english]"),
+                         getDependencies(classLoader.loadClass("app.Factories_greeting_ThemisCreator")));
+        }
+    }
+
+    private static List<String> getDependencies(Class<?> creator) throws ReflectiveOperationException {
+        var field = creator.getDeclaredField("DEPENDENCIES");
+        field.setAccessible(true);
+        return Arrays.stream((Object[]) field.get(null)).map(Object::toString).toList();
+    }
+
+    private List<String> compile() throws IOException, URISyntaxException {
+        return TestCompiler.compile(output,
+                                    List.of(getLocation(Themis.class), getLocation(PostConstruct.class)),
+                                    List.of("-Athemis.aot=true"),
+                                    Map.of("app.Repository", REPOSITORY,
+                                           "app.Greeters", GREETERS,
+                                           "app.Service", SERVICE,
+                                           "app.Factories", FACTORIES));
+    }
+
+    private static Path getLocation(Class<?> clazz) throws URISyntaxException {
+        return Path.of(clazz.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    /**
+     * Loads Themis and the compiled classes in isolation and records the loaded classes.
+     */
+    private static final class RecordingClassLoader extends URLClassLoader {
+        private final Set<String> loadedClasses = ConcurrentHashMap.newKeySet();
+
+        private RecordingClassLoader(URL[] urls) {
+            super(urls, getPlatformClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            loadedClasses.add(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+The MIT License (MIT)
+Copyright (c) 2023 Matthieu Casanova
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package com.kpouer.themis.processor;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles sources with the {@link ComponentIndexProcessor}.
+ *
+ * @author Matthieu Casanova
+ */
+final class TestCompiler {
+    /**
+     * The annotation recognized by the processor, the processor doesn't depend on Themis.
+     */
+    static final String COMPONENT_SOURCE = """
+        package com.kpouer.themis.annotation;
+
+        @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+        public @interface Component {
+            String value() default "";
+        }
+        """;
+
+    private TestCompiler() {
+    }
+
+    /**
+     * Compile the sources, the output directory is also on the classpath like in an incremental compilation.
+     *
+     * @param output    the output directory
+     * @param classpath the other entries of the classpath
+     * @param options   the compiler options
+     * @param sources   the sources, key: the class name, value: the source
+     * @return the warnings
+     */
+    static List<String> compile(Path output, List<Path> classpath, List<String> options, Map<String, String> sources) throws IOException {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (var fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+            fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(output));
+            var paths = new ArrayList<Path>();
+            paths.add(output);
+            paths.addAll(classpath);
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, paths);
+            var compilationUnits = sources.entrySet()
+                                          .stream()
+                                          .map(entry -> new Source(entry.getKey(), entry.getValue()))
+                                          .toList();
+            var task = compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnits);
+            task.setProcessors(List.of(new ComponentIndexProcessor()));
+            var success = task.call();
+            assertTrue(success, () -> diagnostics.getDiagnostics().stream().map(Object::toString).collect(Collectors.joining("\n")));
+        }
+        return diagnostics.getDiagnostics()
+                          .stream()
+                          .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                          .map(diagnostic -> diagnostic.getMessage(null))
+                          .toList();
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        private Source(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}